@@ -0,0 +1,153 @@
+package com.yayandroid.rotatable;
+
+import android.animation.TimeInterpolator;
+
+import java.util.Arrays;
+
+/**
+ * Fractions of a programmatic rotation where rotatable crosses a side border, so visible side
+ * can be swapped only at those moments instead of checking rotation on each frame.
+ * <p>
+ * Start, end and interpolator of a rotation are known before it starts, so crossings are
+ * solved once: interpolator is sampled to find where half turn index changes and each border
+ * in between is narrowed down by bisection. Rotation values are kept from the side of the
+ * border rotatable ends up in, so they belong to the new side without any doubt.
+ */
+final class FaceSwapTimeline {
+
+    /**
+     * Interpolator is assumed to be monotonic between two samples
+     */
+    private static final int SAMPLES = 32;
+    private static final int BISECTIONS = 16;
+
+    private float startX, deltaX, startY, deltaY;
+    private TimeInterpolator interpolator;
+
+    private float[] fractions = new float[8];
+    private float[] rotationsX = new float[8];
+    private float[] rotationsY = new float[8];
+    private int count;
+    private int next;
+
+    /**
+     * Solves crossings of a rotation from given start to end values, previous ones are dropped
+     */
+    void solve(float startX, float endX, float startY, float endY, TimeInterpolator interpolator) {
+        this.startX = startX;
+        this.deltaX = endX - startX;
+        this.startY = startY;
+        this.deltaY = endY - startY;
+        this.interpolator = interpolator;
+        count = 0;
+        next = 0;
+
+        float fraction0 = 0;
+        float value0 = interpolator.getInterpolation(0);
+        for (int i = 1; i <= SAMPLES; i++) {
+            float fraction1 = (float) i / SAMPLES;
+            float value1 = interpolator.getInterpolation(fraction1);
+
+            solveAxis(this.startX, deltaX, fraction0, value0, fraction1, value1);
+            solveAxis(this.startY, deltaY, fraction0, value0, fraction1, value1);
+
+            fraction0 = fraction1;
+            value0 = value1;
+        }
+    }
+
+    private void solveAxis(float start, float delta, float fraction0, float value0,
+                           float fraction1, float value1) {
+        if (delta == 0) {
+            return;
+        }
+
+        int halfTurn0 = RotationState.halfTurn(start + delta * value0);
+        int halfTurn1 = RotationState.halfTurn(start + delta * value1);
+        if (halfTurn0 == halfTurn1) {
+            return;
+        }
+
+        // Border between half turn h - 1 and h is at 180 * h - 90, see RotationState
+        boolean increasing = halfTurn1 > halfTurn0;
+        int from = increasing ? halfTurn0 + 1 : halfTurn0;
+        int to = increasing ? halfTurn1 : halfTurn1 + 1;
+        int step = increasing ? 1 : -1;
+        for (int h = from; increasing ? h <= to : h >= to; h += step) {
+            float border = 180 * h - 90;
+            float low = fraction0, high = fraction1;
+            for (int i = 0; i < BISECTIONS; i++) {
+                float middle = (low + high) / 2;
+                float degree = start + delta * interpolator.getInterpolation(middle);
+                if (increasing == (degree >= border)) {
+                    high = middle;
+                } else {
+                    low = middle;
+                }
+            }
+            insert(high);
+        }
+    }
+
+    /**
+     * Keeps crossings sorted, since ones of both axes in the same sample may come in any order
+     */
+    private void insert(float fraction) {
+        if (count == fractions.length) {
+            fractions = Arrays.copyOf(fractions, count * 2);
+            rotationsX = Arrays.copyOf(rotationsX, count * 2);
+            rotationsY = Arrays.copyOf(rotationsY, count * 2);
+        }
+
+        int index = count;
+        while (index > 0 && fractions[index - 1] > fraction) {
+            fractions[index] = fractions[index - 1];
+            rotationsX[index] = rotationsX[index - 1];
+            rotationsY[index] = rotationsY[index - 1];
+            index--;
+        }
+
+        float value = interpolator.getInterpolation(fraction);
+        fractions[index] = fraction;
+        rotationsX[index] = startX + deltaX * value;
+        rotationsY[index] = startY + deltaY * value;
+        count++;
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * Returns true if there is a crossing left which is not consumed yet
+     */
+    boolean hasNext() {
+        return next < count;
+    }
+
+    /**
+     * Returns linear fraction of next crossing, it is only valid while there is one
+     */
+    float nextFraction() {
+        return fractions[next];
+    }
+
+    float nextRotationX() {
+        return rotationsX[next];
+    }
+
+    float nextRotationY() {
+        return rotationsY[next];
+    }
+
+    void advance() {
+        next++;
+    }
+
+    void clear() {
+        count = 0;
+        next = 0;
+        interpolator = null;
+    }
+
+}
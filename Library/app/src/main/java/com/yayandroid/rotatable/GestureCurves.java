@@ -0,0 +1,58 @@
+package com.yayandroid.rotatable;
+
+/**
+ * Ready to use {@link Rotatable.GestureCurve} implementations
+ */
+public final class GestureCurves {
+
+    private static final Rotatable.GestureCurve LINEAR = new Rotatable.GestureCurve() {
+        @Override
+        public float map(float degrees) {
+            return degrees;
+        }
+    };
+
+    private GestureCurves() {
+    }
+
+    /**
+     * Rotation follows finger exactly, same as having no curve at all
+     */
+    public static Rotatable.GestureCurve linear() {
+        return LINEAR;
+    }
+
+    /**
+     * Rotation follows finger at first, and resists more as it gets closer to given degree limit
+     * which is never exceeded no matter how far finger goes
+     */
+    public static Rotatable.GestureCurve rubberBand(final float limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Rubber band limit must be positive!");
+        }
+
+        return new Rotatable.GestureCurve() {
+            @Override
+            public float map(float degrees) {
+                return limit * degrees / (limit + Math.abs(degrees));
+            }
+        };
+    }
+
+    /**
+     * Rotation speeds up as finger goes further, by given factor for each half turn
+     */
+    public static Rotatable.GestureCurve accelerate(final float factor) {
+        if (factor < 0) {
+            throw new IllegalArgumentException("Acceleration factor cannot be negative!");
+        }
+
+        return new Rotatable.GestureCurve() {
+            @Override
+            public float map(float degrees) {
+                return degrees * (1 + factor * Math.abs(degrees) / 180);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.yayandroid.rotatable;
+
+/**
+ * Orientation of a freely rotated view as a unit quaternion, see {@link Rotatable.Builder#freeRotation(boolean)}.
+ * <p>
+ * Drags rotate the view around axes fixed to the screen, so they are applied on top of
+ * the orientation instead of being added to rotation x and y one by one, which turns
+ * the wrong way once view is tilted on both axes. View only takes euler angles though,
+ * so orientation is written back as rotation x, y and z in the order view applies them.
+ * <p>
+ * Quaternion is kept in plain fields and reused for every gesture, nothing is allocated.
+ * A touch sample only costs multiplies and a square root, but writing orientation back
+ * costs two atan2 and an asin once per event, which is more than adding degrees
+ * to rotation x and y as a drag along a single axis does.
+ */
+final class Orientation {
+
+    /**
+     * Beyond this, view is seen edge on and x and z rotations turn around the same axis
+     */
+    private static final float GIMBAL_LOCK = 0.9999f;
+
+    private static final float HALF_RADIANS = (float) (Math.PI / 360);
+
+    private float w = 1, x = 0, y = 0, z = 0;
+    private float fromW, fromX, fromY, fromZ;
+    private float toW, toX, toY, toZ;
+
+    private float rotationX, rotationY, rotationZ;
+    private float targetRotationX, targetRotationY;
+
+    /**
+     * Starts from given view rotation. View rotates around z the other way, so it is negated
+     */
+    void set(float rotationX, float rotationY, float rotationZ) {
+        double a = Math.toRadians(rotationX) / 2;
+        double b = Math.toRadians(rotationY) / 2;
+        double c = Math.toRadians(-rotationZ) / 2;
+        float ca = (float) Math.cos(a), sa = (float) Math.sin(a);
+        float cb = (float) Math.cos(b), sb = (float) Math.sin(b);
+        float cc = (float) Math.cos(c), sc = (float) Math.sin(c);
+
+        // Rx * Ry first, then Rz
+        float pw = ca * cb, px = sa * cb, py = ca * sb, pz = sa * sb;
+        w = pw * cc - pz * sc;
+        x = px * cc + py * sc;
+        y = py * cc - px * sc;
+        z = pw * sc + pz * cc;
+    }
+
+    /**
+     * Rotates around screen x and y axes by given degrees, so it is multiplied from the left.
+     * Both are turned into a single rotation around their combined axis, which is exact for
+     * small steps such as a touch sample.
+     * <p>
+     * Rotation is taken as 1 and tangent of its half angle along the axis, as it is normalized
+     * anyway, and tangent is expanded up to its cubic term. That is off by less than 0.02 degrees
+     * for a step of 30 degrees, and a sample needs no trigonometry at all
+     */
+    void rotate(float degreesX, float degreesY) {
+        if (degreesX == 0 && degreesY == 0) {
+            return;
+        }
+
+        float hx = degreesX * HALF_RADIANS, hy = degreesY * HALF_RADIANS;
+        float tan = 1 + (hx * hx + hy * hy) / 3;
+        float dx = hx * tan, dy = hy * tan;
+
+        float nw = w - dx * x - dy * y;
+        float nx = x + dx * w + dy * z;
+        float ny = y - dx * z + dy * w;
+        float nz = z + dx * y - dy * x;
+        setNormalized(nw, nx, ny, nz);
+    }
+
+    /**
+     * Rotates around view's own normal by given degrees of view rotation, so it is multiplied
+     * from the right. Same as rotation z of a view, it turns the other way on screen while
+     * view shows its back, twist angle is already brought into view rotation for that
+     */
+    void rotateZ(float degrees) {
+        double half = Math.toRadians(-degrees) / 2;
+        float dw = (float) Math.cos(half), dz = (float) Math.sin(half);
+
+        float nw = w * dw - z * dz;
+        float nx = x * dw + y * dz;
+        float ny = y * dw - x * dz;
+        float nz = z * dw + w * dz;
+        setNormalized(nw, nx, ny, nz);
+    }
+
+    /**
+     * Front faces the screen while z of its normal is positive, which is the last element
+     * of rotation matrix, so it doesn't need any euler angle
+     */
+    boolean isFront() {
+        return x * x + y * y <= 0.5f;
+    }
+
+    /**
+     * Aims for the closest orientation view lies flat on, showing the side it shows now.
+     * Rotation around screen normal is kept as a multiple of given detent
+     */
+    void snap(float detent) {
+        fromW = w;
+        fromX = x;
+        fromY = y;
+        fromZ = z;
+
+        // Flat front is a turn around z, flat back is the same after a half turn around x
+        float angle;
+        if (isFront()) {
+            angle = snapAngle(2 * (float) Math.toDegrees(Math.atan2(z, w)), detent);
+            double half = Math.toRadians(angle) / 2;
+            toW = (float) Math.cos(half);
+            toX = 0;
+            toY = 0;
+            toZ = (float) Math.sin(half);
+        } else {
+            angle = snapAngle(2 * (float) Math.toDegrees(Math.atan2(y, x)), detent);
+            double half = Math.toRadians(angle) / 2;
+            toW = 0;
+            toX = (float) Math.cos(half);
+            toY = (float) Math.sin(half);
+            toZ = 0;
+        }
+
+        resolveRotation(toW, toX, toY, toZ);
+        targetRotationX = rotationX;
+        targetRotationY = rotationY;
+        resolveRotation(w, x, y, z);
+    }
+
+    private static float snapAngle(float angle, float detent) {
+        return Math.round(angle / detent) * detent;
+    }
+
+    /**
+     * Moves along the shortest arc from where snap started towards its target
+     */
+    void interpolate(float fraction) {
+        float dot = fromW * toW + fromX * toX + fromY * toY + fromZ * toZ;
+        float sign = dot < 0 ? -1 : 1;
+        dot *= sign;
+
+        float fromWeight, toWeight;
+        if (dot > 0.9995f) {
+            // Too close to divide by sine, linear is just as good
+            fromWeight = 1 - fraction;
+            toWeight = fraction * sign;
+        } else {
+            float theta = (float) Math.acos(dot);
+            float sin = (float) Math.sin(theta);
+            fromWeight = (float) Math.sin((1 - fraction) * theta) / sin;
+            toWeight = (float) Math.sin(fraction * theta) / sin * sign;
+        }
+
+        setNormalized(fromW * fromWeight + toW * toWeight, fromX * fromWeight + toX * toWeight,
+                fromY * fromWeight + toY * toWeight, fromZ * fromWeight + toZ * toWeight);
+    }
+
+    /**
+     * Writes orientation into rotation x, y and z, read them by getters
+     */
+    void resolveRotation() {
+        resolveRotation(w, x, y, z);
+    }
+
+    private void resolveRotation(float w, float x, float y, float z) {
+        float r02 = 2 * (x * z + w * y);
+        float a, b, c;
+        if (Math.abs(r02) < GIMBAL_LOCK) {
+            a = (float) Math.atan2(-2 * (y * z - w * x), 1 - 2 * (x * x + y * y));
+            b = (float) Math.asin(r02);
+            c = (float) Math.atan2(-2 * (x * y - w * z), 1 - 2 * (y * y + z * z));
+        } else {
+            // Only sum of x and z is known, all of it is put on x
+            a = (float) Math.atan2(2 * (y * z + w * x), 1 - 2 * (x * x + z * z));
+            b = r02 > 0 ? (float) Math.PI / 2 : (float) -Math.PI / 2;
+            c = 0;
+        }
+
+        rotationX = (float) Math.toDegrees(a);
+        rotationY = (float) Math.toDegrees(b);
+        rotationZ = (float) -Math.toDegrees(c);
+
+        // Half turns on both x and z are the same as a half turn on y, which is how a flip is expected
+        if (Math.abs(rotationX) > 90 && Math.abs(rotationZ) > 90) {
+            rotationX -= Math.signum(rotationX) * 180;
+            rotationY = 180 - rotationY;
+            rotationZ -= Math.signum(rotationZ) * 180;
+        }
+    }
+
+    private void setNormalized(float w, float x, float y, float z) {
+        float length = (float) Math.sqrt(w * w + x * x + y * y + z * z);
+        this.w = w / length;
+        this.x = x / length;
+        this.y = y / length;
+        this.z = z / length;
+    }
+
+    float getRotationX() {
+        return rotationX;
+    }
+
+    float getRotationY() {
+        return rotationY;
+    }
+
+    float getRotationZ() {
+        return rotationZ;
+    }
+
+    float getTargetRotationX() {
+        return targetRotationX;
+    }
+
+    float getTargetRotationY() {
+        return targetRotationY;
+    }
+
+}
@@ -4,20 +4,42 @@ import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
 import android.animation.AnimatorSet;
 import android.animation.ObjectAnimator;
+import android.animation.TimeInterpolator;
 import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
+import android.content.ContentResolver;
 import android.content.Context;
-import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.drawable.BitmapDrawable;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.provider.Settings;
 import android.support.annotation.IntDef;
+import android.support.v4.view.AccessibilityDelegateCompat;
+import android.support.v4.view.ViewCompat;
+import android.support.v4.view.accessibility.AccessibilityNodeInfoCompat;
 import android.support.v4.view.animation.FastOutSlowInInterpolator;
 import android.util.DisplayMetrics;
 import android.util.Property;
 import android.view.Display;
+import android.view.HapticFeedbackConstants;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
 import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewOverlay;
+import android.view.ViewPropertyAnimator;
+import android.view.ViewStub;
 import android.view.WindowManager;
 import android.view.animation.CycleInterpolator;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.LinearInterpolator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Created by Yahya Bayramoglu on 01/12/15.
@@ -26,16 +48,36 @@ public class Rotatable implements View.OnTouchListener {
 
     private static final int NULL_INT = -1;
     private final int FIT_ANIM_TIME = 300;
+    private final int MAX_FLING_ANIM_TIME = 1200;
+    private final float FLING_PROJECTION_TIME = 0.3f;
+
+    private static final int GESTURE_IDLE = 0;
+    private static final int GESTURE_POSSIBLE = 1;
+    private static final int GESTURE_ROTATING = 2;
+    private static final int GESTURE_REJECTED = 3;
 
     public static final int DEFAULT_ROTATE_ANIM_TIME = 500;
-    public static final int ROTATE_BOTH = 0;
     public static final int ROTATE_X = 1;
     public static final int ROTATE_Y = 2;
+    public static final int ROTATE_Z = 4;
+    public static final int ROTATE_BOTH = ROTATE_X | ROTATE_Y;
 
-    @IntDef({ROTATE_X, ROTATE_Y, ROTATE_BOTH})
+    /**
+     * Axes can be combined as flags, such as ROTATE_X | ROTATE_Z. ROTATE_BOTH is itself
+     * the combination of x and y, so ROTATE_BOTH | ROTATE_Z rotates around all three
+     */
+    @IntDef(flag = true, value = {ROTATE_X, ROTATE_Y, ROTATE_Z, ROTATE_BOTH})
     public @interface Direction {
     }
 
+    public static final int DELIVER_EVERY_EVENT = 0;
+    public static final int DELIVER_PER_FRAME = 1;
+    public static final int DELIVER_SAMPLED = 2;
+
+    @IntDef({DELIVER_EVERY_EVENT, DELIVER_PER_FRAME, DELIVER_SAMPLED})
+    public @interface Delivery {
+    }
+
     public static final int FRONT_VIEW = 3;
     public static final int BACK_VIEW = 4;
 
@@ -43,68 +85,368 @@ public class Rotatable implements View.OnTouchListener {
     public @interface Side {
     }
 
+    public static final int SWAP_GONE = 0;
+    public static final int SWAP_INVISIBLE = 1;
+    public static final int SWAP_ALPHA = 2;
+
+    @IntDef({SWAP_GONE, SWAP_INVISIBLE, SWAP_ALPHA})
+    public @interface SwapMode {
+    }
+
+    public static final int DETENT_FACE = 0;
+    public static final int DETENT_Z = 1;
+    public static final int DETENT_SNAP = 2;
+
+    @IntDef({DETENT_FACE, DETENT_Z, DETENT_SNAP})
+    public @interface Detent {
+    }
+
     private RotationListener rotationListener;
-    private View rootView, frontView, backView;
+    private RotationEventListener eventListener;
+    private GestureCurve gestureCurve;
+    private View rootView;
+    private View[] faceViews;
+    private View windowView;
+    private final int[] windowLocation = new int[2];
 
     private boolean touchEnable = true;
     private boolean shouldSwapViews = false;
+    private boolean flingEnable = false;
+    private boolean hardwareLayer = false;
+    private boolean touchLayerAcquired = false;
+    private boolean dispatchPending = false;
+    private boolean touchPrediction = false;
+    private boolean springFramePosted = false;
+    private boolean springCarried = false;
+    private boolean attentionSettling = false;
+    private boolean fitCancelled = false;
+    private boolean metricsFramePosted = false;
+    private boolean renderThreadRotation = false;
+    private boolean renderThreadRotating = false;
+    private boolean snapshotMode = false;
+    private boolean snapshotActive = false;
+    private boolean axisLock = false;
+    private boolean rotationCaught = false;
+    private boolean twisting = false;
+    private boolean freeRotation = false;
+    private boolean freeGesture = false;
+    private boolean freeOffAxis = false;
+    private boolean touchSnapping = false;
+    private boolean hapticFeedback = false;
+    private boolean accessibilityAction = false;
+    private boolean grouped = false;
+    private boolean groupFlipping = false;
+    private RotatableGroup group;
 
     private int rotation;
-    private int screenWidth = NULL_INT, screenHeight = NULL_INT;
+    private int[] faceIds;
+    private int[] inflatedIds;
+    private int[] faceMirrorAxes;
+    private int pivotX = NULL_INT, pivotY = NULL_INT;
+    private int windowLeft, windowTop, windowWidth = NULL_INT, windowHeight = NULL_INT;
     private int currentVisibleView = FRONT_VIEW;
+    private int currentFace = 0;
+    private int layerRequests = 0;
+    private int defaultLayerType = View.LAYER_TYPE_NONE;
+    private int listenerDelivery = DELIVER_EVERY_EVENT;
+    private int swapMode = SWAP_GONE;
+    private int gestureState = GESTURE_IDLE;
+    private int gestureDirection;
+    private int activePointerId = MotionEvent.INVALID_POINTER_ID;
+    private int twistPointerId = MotionEvent.INVALID_POINTER_ID;
+    private int zDetentIndex;
+    private long listenerSampleInterval;
+    private long lastDispatchTime;
 
     private float rotationCount;
     private float rotationDistance;
     private float oldX, oldY, currentX, currentY;
-    private float currentXRotation = 0, currentYRotation = 0;
-    private float maxDistanceX = NULL_INT, maxDistanceY = NULL_INT;
+    private float scaleX, scaleY, offsetX, offsetY;
+    private float countScaleXToStart, countScaleXToEnd, countScaleYToStart, countScaleYToEnd;
+    private float downRawX, downRawY;
+    private float lastRawX, lastRawY;
+    private float screenOffsetX, screenOffsetY;
+    private final float[] touchPoint = new float[2];
+    private final Matrix screenMatrix = new Matrix();
+    private float touchSlop;
+    private float lastTwistAngle;
+    private float zDetent;
+    private boolean scaleXResolved, scaleYResolved;
+    private float currentXRotation = 0, currentYRotation = 0, currentZRotation = 0;
+    private float notifiedXRotation = Float.NaN, notifiedYRotation = Float.NaN, notifiedZRotation = Float.NaN;
     private float defaultPivotX = NULL_INT, defaultPivotY = NULL_INT;
+    private float minFlingVelocity, maxFlingVelocity;
+    private float frameInterval;
+    private float carriedVelocityX, carriedVelocityY, carriedVelocityZ;
+    private float carriedTargetX, carriedTargetY, carriedTargetZ;
+    private long lastSpringFrameTime;
+    private SpringSnapper springSnapper;
+    private RotationMetrics metrics;
+    private RotationStream stream;
+
+    private final FaceSwapTimeline swapTimeline = new FaceSwapTimeline();
+    private long renderThreadStartTime;
+    private float renderThreadDuration;
+    private float swapDuration;
+    private float renderThreadEndX, renderThreadEndY, renderThreadEndZ;
+
+    private BitmapDrawable[] snapshots;
+    private Canvas snapshotCanvas;
+    private int snapshotLiveFace;
+
+    private ValueAnimator sequenceAnimator;
+    private RotationSequence sequence;
+    private int sequenceStep;
+    private float sequenceStartX, sequenceStartY, sequenceStartZ;
+
+    /**
+     * Touch path keeps everything it needs preallocated,
+     * so neither move nor up events cause any allocation
+     */
+    private VelocityTracker velocityTracker;
+    private ObjectAnimator fitAnimatorX, fitAnimatorY, fitAnimatorZ;
+    private int runningFitAnimators = 0;
+    private Animator activeAnimator;
+    private final RotationState rotationState;
+    private final Orientation orientation = new Orientation();
+    private ValueAnimator freeSnapAnimator;
+    private final TimeInterpolator fitInterpolator = new FastOutSlowInInterpolator();
+    private final TimeInterpolator flingInterpolator = new DecelerateInterpolator();
 
     private Rotatable(Builder builder) {
-        this.rootView = builder.root;
+        this.rotationListener = builder.listener;
+        this.eventListener = builder.eventListener;
+        this.gestureCurve = builder.gestureCurve;
+        this.listenerDelivery = builder.listenerDelivery;
+        // A gone face is not laid out and cannot be captured, or is captured as it was laid out last time
+        this.swapMode = builder.snapshotMode && builder.swapMode == SWAP_GONE ? SWAP_INVISIBLE : builder.swapMode;
+        this.axisLock = builder.axisLock;
+        this.zDetent = builder.zDetent;
+        this.freeRotation = builder.freeRotation;
+        this.hapticFeedback = builder.hapticFeedback;
+        this.accessibilityAction = builder.accessibilityAction;
+        this.listenerSampleInterval = builder.listenerSampleInterval;
+        this.faceIds = builder.faceIds;
+        this.rotationState = new RotationState(faceIds != null ? faceIds.length : 2);
+        if (faceIds != null) {
+            this.faceViews = new View[faceIds.length];
+            this.inflatedIds = new int[faceIds.length];
+            this.faceMirrorAxes = new int[faceIds.length];
+            Arrays.fill(inflatedIds, View.NO_ID);
+        }
+        this.pivotX = builder.pivotX;
+        this.pivotY = builder.pivotY;
+        this.rotation = builder.rotation;
+        this.rotationCount = builder.rotationCount;
+        this.rotationDistance = builder.rotationDistance;
+        this.flingEnable = builder.fling;
+        this.hardwareLayer = builder.hardwareLayer;
+        if (builder.springStiffness != NULL_INT) {
+            this.springSnapper = new SpringSnapper(builder.springStiffness, builder.springDampingRatio);
+        }
+
+        ViewConfiguration configuration = ViewConfiguration.get(builder.root.getContext());
+        this.minFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        this.touchSlop = configuration.getScaledTouchSlop();
+        this.maxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+
+        this.touchPrediction = builder.touchPrediction;
+        this.renderThreadRotation = builder.renderThreadRotation;
+        this.snapshotMode = builder.snapshotMode;
+        this.metrics = builder.metrics;
+        this.stream = builder.stream;
+        if (touchPrediction || metrics != null) {
+            Display display = ((WindowManager) builder.root.getContext()
+                    .getSystemService(Context.WINDOW_SERVICE)).getDefaultDisplay();
+            this.frameInterval = 1f / display.getRefreshRate();
+            if (metrics != null) {
+                metrics.setFrameInterval(frameInterval * 1000);
+            }
+        }
+
+        bind(builder.root);
+    }
+
+    /**
+     * Attaches this rotatable with its current configuration to given view,
+     * sides are looked up again by their ids. If it was bound to another view before,
+     * that one is unbound first. Useful to reuse rotatable objects in recycled views,
+     * see {@link RotatablePool} and {@link RotatableStateStore}
+     */
+    public void bind(View viewToRotate) {
+        if (rootView != null) {
+            unbind();
+        }
+
+        this.rootView = viewToRotate;
         this.defaultPivotX = rootView.getPivotX();
         this.defaultPivotY = rootView.getPivotY();
-        this.rotationListener = builder.listener;
 
-        if (builder.pivotX != NULL_INT) {
-            this.rootView.setPivotX(builder.pivotX);
+        if (pivotX != NULL_INT) {
+            this.rootView.setPivotX(pivotX);
         }
 
-        if (builder.pivotY != NULL_INT) {
-            this.rootView.setPivotY(builder.pivotY);
+        if (pivotY != NULL_INT) {
+            this.rootView.setPivotY(pivotY);
         }
 
-        if (builder.frontId != NULL_INT) {
-            this.frontView = rootView.findViewById(builder.frontId);
+        this.shouldSwapViews = faceIds != null;
+        if (shouldSwapViews) {
+            for (int i = 0; i < faceIds.length; i++) {
+                faceViews[i] = findFace(i);
+                if (faceViews[i] == null) {
+                    shouldSwapViews = false;
+                }
+            }
         }
 
-        if (builder.backId != NULL_INT) {
-            this.backView = rootView.findViewById(builder.backId);
+        // Tracker is recycled by drop, a dropped rotatable can still be bound again
+        if (velocityTracker == null) {
+            velocityTracker = VelocityTracker.obtain();
+        }
+        if (fitAnimatorX != null) {
+            fitAnimatorX.setTarget(rootView);
+        }
+        if (fitAnimatorY != null) {
+            fitAnimatorY.setTarget(rootView);
+        }
+        if (fitAnimatorZ != null) {
+            fitAnimatorZ.setTarget(rootView);
         }
 
-        this.rotation = builder.rotation;
-        this.rotationCount = builder.rotationCount;
-        this.rotationDistance = builder.rotationDistance;
-        this.shouldSwapViews = frontView != null && backView != null;
+        // Recycled views may come with sides of their previous rotation
+        rotationState.reset();
+        currentVisibleView = FRONT_VIEW;
+        currentFace = 0;
+        // Listener hears about the new view's rotation even if it is the same as the last one's
+        notifiedXRotation = notifiedYRotation = notifiedZRotation = Float.NaN;
+        if (shouldSwapViews) {
+            for (int i = 1; i < faceViews.length; i++) {
+                hideFace(i);
+            }
+            showFace(0);
+        }
+        updateRotationValues(false);
+        if (shouldSwapViews) {
+            // View comes with its rotation, nothing is crossed to get there
+            swapViews(false);
+        }
+
+        if (stream != null) {
+            stream.attach(rootView);
+        }
+        if (accessibilityAction) {
+            ViewCompat.setAccessibilityDelegate(rootView, accessibilityDelegate);
+        }
+        rootView.addOnAttachStateChangeListener(attachListener);
+        if (rootView.getWindowToken() != null) {
+            attachWindowView();
+        }
 
-        rootView.setOnTouchListener(this);
+        // Group keeps passing gestures to its members across binds
+        rootView.setOnTouchListener(grouped ? null : this);
     }
 
     /**
-     * This method needs to be call, if only you need to reset and
-     * rebuild a view as rotatable with different configurations
+     * Releases bound view but keeps configuration, so this rotatable
+     * can be bound to another view by {@link #bind(View)}
      */
-    public void drop() {
+    public void unbind() {
+        if (rootView == null) {
+            return;
+        }
+
+        if (group != null) {
+            group.onUnbind(this);
+        }
+        cancelRunningRotation();
+        endSnapshot();
+        springCarried = false;
+        freeOffAxis = false;
+        if (faceViews != null) {
+            // Recycled view goes back with faces as they were given
+            for (int i = 0; i < faceViews.length; i++) {
+                mirrorFace(i, false);
+            }
+        }
+
         rootView.setPivotX(defaultPivotX);
         rootView.setPivotY(defaultPivotY);
         rootView.setOnTouchListener(null);
+        rootView.removeOnAttachStateChangeListener(attachListener);
+        detachWindowView();
+        windowWidth = NULL_INT;
+        windowHeight = NULL_INT;
+        if (dispatchPending) {
+            dispatchPending = false;
+            rootView.removeCallbacks(dispatchRunnable);
+        }
+        if (metricsFramePosted) {
+            metricsFramePosted = false;
+            rootView.removeCallbacks(metricsFrame);
+        }
+        if (stream != null) {
+            stream.detach();
+        }
+        if (accessibilityAction) {
+            ViewCompat.setAccessibilityDelegate(rootView, null);
+        }
+        if (layerRequests > 0) {
+            layerRequests = 0;
+            rootView.setLayerType(defaultLayerType, null);
+        }
+        touchLayerAcquired = false;
+        velocityTracker.clear();
+
         rootView = null;
-        frontView = null;
-        backView = null;
+        if (faceViews != null) {
+            Arrays.fill(faceViews, null);
+        }
+    }
+
+    /**
+     * This method needs to be call, if only you need to reset and
+     * rebuild a view as rotatable with different configurations
+     */
+    public void drop() {
+        if (group != null) {
+            group.remove(this);
+        }
+        unbind();
+        if (fitAnimatorX != null) {
+            fitAnimatorX.setTarget(null);
+        }
+        if (fitAnimatorY != null) {
+            fitAnimatorY.setTarget(null);
+        }
+        if (fitAnimatorZ != null) {
+            fitAnimatorZ.setTarget(null);
+        }
+        if (velocityTracker != null) {
+            velocityTracker.recycle();
+            velocityTracker = null;
+        }
+    }
+
+    /**
+     * Rotates view to given values immediately without any animation, visible side and listener
+     * are updated accordingly. It is a jump rather than a rotation, such as restoring a state,
+     * so no side, face or detent event is fired
+     */
+    public void setRotation(float rotationX, float rotationY) {
+        setRotation(rotationX, rotationY, currentZRotation);
+    }
+
+    /**
+     * Same as {@link #setRotation(float, float)}, also rotating view around z axis
+     */
+    public void setRotation(float rotationX, float rotationY, float rotationZ) {
+        freeOffAxis = false;
+        applyRotation(rotationX, rotationY, rotationZ, false);
     }
 
     /**
-     * You can specify rotation direction as axis X, Y or BOTH
+     * You can specify rotation direction as axis X, Y, Z, BOTH or a combination of axes
      */
     public void setDirection(@Direction int direction) {
         if (!isRotationValid(direction)) {
@@ -129,29 +471,39 @@ public class Rotatable implements View.OnTouchListener {
     }
 
     /**
-     * If your application can be used multi orientated, then you have to declare
-     * orientation changes to rotatable object, so it can recalculate its maxDistances.
-     * <p>
-     * You only need to inform rotatable object about orientation changes, when you specified
-     * {@link Builder#rotationCount(float)} or {@link Builder#rotationDistance(float)}
+     * Rotatable follows size of the window it is in by itself now, including orientation changes
+     * and multi window resizes, so there is no need to call this method anymore
+     *
+     * @deprecated window bounds are tracked by layout changes
      */
+    @Deprecated
     public void orientationChanged(int newOrientation) {
-        if (screenWidth == NULL_INT) {
-            calculateScreenDimensions();
+        if (windowView != null) {
+            updateWindowBounds();
         }
-        measureScreenUpToOrientation(newOrientation);
-
-        // reset maxDistances values to recalculate them
-        maxDistanceX = NULL_INT;
-        maxDistanceY = NULL_INT;
     }
 
     /**
      * Call this method to reveal rotatable view's existence
      */
     public void takeAttention() {
-        ObjectAnimator animatorX = ObjectAnimator.ofFloat(rootView, View.ROTATION_X, 10);
-        ObjectAnimator animatorY = ObjectAnimator.ofFloat(rootView, View.ROTATION_Y, -10);
+        cancelRunningRotation();
+        endSnapshot();
+
+        if (renderThreadRotation) {
+            // A full cycle ends where it starts, so there is no need to chain a settle animation
+            ViewPropertyAnimator animator = rootView.animate().setListener(null)
+                    .rotationX(currentXRotation + 10).rotationY(currentYRotation - 10);
+            startRenderThreadRotation(animator, DEFAULT_ROTATE_ANIM_TIME + FIT_ANIM_TIME,
+                    new CycleInterpolator(1), currentXRotation, currentYRotation, currentZRotation);
+            return;
+        }
+
+        // Shakes around wherever view is and settles back there, same as render thread one
+        final float fromX = currentXRotation;
+        final float fromY = currentYRotation;
+        ObjectAnimator animatorX = ObjectAnimator.ofFloat(rootView, View.ROTATION_X, fromX + 10);
+        ObjectAnimator animatorY = ObjectAnimator.ofFloat(rootView, View.ROTATION_Y, fromY - 10);
         AnimatorSet set = new AnimatorSet();
         set.setDuration(DEFAULT_ROTATE_ANIM_TIME);
         set.setInterpolator(new CycleInterpolator(0.8f));
@@ -159,15 +511,42 @@ public class Rotatable implements View.OnTouchListener {
             @Override
             public void onAnimationEnd(Animator animation) {
                 super.onAnimationEnd(animation);
+                if (rootView == null || animation != activeAnimator) {
+                    // Cancelled in favor of another rotation
+                    releaseLayer();
+                    return;
+                }
 
-                rootView.animate().rotationX(0).rotationY(0).setDuration(FIT_ANIM_TIME)
-                        .setInterpolator(new FastOutSlowInInterpolator()).start();
+                // Layer is kept until view settles, see attentionEndListener
+                activeAnimator = null;
+                attentionSettling = true;
+                rootView.animate().rotationX(fromX).rotationY(fromY).setDuration(FIT_ANIM_TIME)
+                        .setInterpolator(new FastOutSlowInInterpolator())
+                        .setListener(attentionEndListener).start();
             }
         });
         set.playTogether(animatorX, animatorY);
+        acquireLayer();
+        beginMetricsSession(RotationMetrics.SESSION_ANIMATION);
+        activeAnimator = set;
         set.start();
     }
 
+    private final AnimatorListenerAdapter attentionEndListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            super.onAnimationEnd(animation);
+            if (rootView != null) {
+                // ViewPropertyAnimator is shared, do not leave it to any other animation
+                attentionSettling = false;
+                rootView.animate().setListener(null);
+                updateRotationValues(false);
+                releaseLayer();
+                endMetricsSession();
+            }
+        }
+    };
+
     /**
      * Animate rotatable object with given direction and degree also possible
      * to set duration and a listener with other derivation of this method
@@ -180,19 +559,60 @@ public class Rotatable implements View.OnTouchListener {
         rotate(direction, degree, duration, null);
     }
 
-    public void rotate(final int direction, float degree, int duration, Animator.AnimatorListener listener) {
+    public void rotate(int direction, float degree, int duration, Animator.AnimatorListener listener) {
+        // Starts from wherever the view is, instead of competing with a running rotation
+        cancelRunningRotation();
+        beginSnapshot();
+
+        boolean aroundX = hasAxis(direction, ROTATE_X);
+        boolean aroundY = hasAxis(direction, ROTATE_Y);
+        boolean aroundZ = hasAxis(direction, ROTATE_Z);
+        float toX = aroundX ? degree : currentXRotation;
+        float toY = aroundY ? degree : currentYRotation;
+        float toZ = aroundZ ? degree : currentZRotation;
+
+        if (renderThreadRotation) {
+            ViewPropertyAnimator animator = rootView.animate()
+                    .setListener(listener != null ? new RenderThreadListener(listener) : null);
+            if (aroundX) {
+                animator.rotationX(toX);
+            }
+            if (aroundY) {
+                animator.rotationY(toY);
+            }
+            if (aroundZ) {
+                animator.rotation(toZ);
+            }
+            startRenderThreadRotation(animator, duration, new FastOutSlowInInterpolator(), toX, toY, toZ);
+            return;
+        }
+
+        TimeInterpolator interpolator = new FastOutSlowInInterpolator();
         AnimatorSet animatorSet = new AnimatorSet();
         animatorSet.setDuration(duration);
-        animatorSet.setInterpolator(new FastOutSlowInInterpolator());
+        animatorSet.setInterpolator(interpolator);
 
         ArrayList<Animator> animators = new ArrayList<>();
 
-        if (direction == ROTATE_X || direction == ROTATE_BOTH) {
-            animators.add(getAnimatorForProperty(View.ROTATION_X, direction, degree));
+        if (aroundX) {
+            animators.add(ObjectAnimator.ofFloat(rootView, View.ROTATION_X, degree));
+        }
+
+        if (aroundY) {
+            animators.add(ObjectAnimator.ofFloat(rootView, View.ROTATION_Y, degree));
         }
 
-        if (direction == ROTATE_Y || direction == ROTATE_BOTH) {
-            animators.add(getAnimatorForProperty(View.ROTATION_Y, direction, degree));
+        if (aroundZ) {
+            animators.add(ObjectAnimator.ofFloat(rootView, View.ROTATION, degree));
+        }
+
+        if (shouldSwapViews) {
+            swapTimeline.solve(currentXRotation, toX, currentYRotation, toY, interpolator);
+            if (swapTimeline.size() > 0) {
+                swapDuration = duration * getDurationScale();
+                // Animators of the set run together, so one of them is enough to follow time
+                ((ValueAnimator) animators.get(0)).addUpdateListener(swapKeyframeListener);
+            }
         }
 
         if (listener != null) {
@@ -203,39 +623,121 @@ public class Rotatable implements View.OnTouchListener {
             @Override
             public void onAnimationEnd(Animator animation) {
                 super.onAnimationEnd(animation);
-                updateRotationValues(true);
+                if (rootView != null) {
+                    // Only the rotation which is not replaced by another one reports its end
+                    if (animation == activeAnimator) {
+                        activeAnimator = null;
+                        updateRotationValues(true);
+                        if (shouldSwapViews) {
+                            swapViews();
+                        }
+                        endSnapshot();
+                        endMetricsSession();
+                    }
+                    releaseLayer();
+                }
             }
         });
 
         animatorSet.playTogether(animators);
+        acquireLayer();
+        beginMetricsSession(RotationMetrics.SESSION_ANIMATION);
+        activeAnimator = animatorSet;
         animatorSet.start();
     }
 
     /**
-     * Rotates once around in given direction
+     * Plays steps of given sequence starting from current rotation. Same animator is reused
+     * by every sequence this rotatable plays, so looping attention getters don't allocate
+     */
+    public void play(RotationSequence sequence) {
+        cancelRunningRotation();
+        beginSnapshot();
+
+        if (sequenceAnimator == null) {
+            sequenceAnimator = ValueAnimator.ofFloat(0, 1);
+            sequenceAnimator.setInterpolator(new LinearInterpolator());
+            sequenceAnimator.addUpdateListener(sequenceUpdateListener);
+            sequenceAnimator.addListener(sequenceListener);
+        }
+
+        this.sequence = sequence;
+        sequenceStep = 0;
+        sequenceStartX = currentXRotation;
+        sequenceStartY = currentYRotation;
+        sequenceStartZ = currentZRotation;
+        sequenceAnimator.setDuration(sequence.getTotalDuration());
+        sequenceAnimator.setRepeatCount(sequence.getRepeatCount());
+
+        acquireLayer();
+        beginMetricsSession(RotationMetrics.SESSION_ANIMATION);
+        activeAnimator = sequenceAnimator;
+        sequenceAnimator.start();
+    }
+
+    private final ValueAnimator.AnimatorUpdateListener sequenceUpdateListener =
+            new ValueAnimator.AnimatorUpdateListener() {
+                @Override
+                public void onAnimationUpdate(ValueAnimator animation) {
+                    long time = (long) ((float) animation.getAnimatedValue() * sequence.getTotalDuration());
+                    sequenceStep = sequence.findStep(sequenceStep, time);
+                    applyRotation(sequenceStartX + sequence.getRotationX(sequenceStep, time),
+                            sequenceStartY + sequence.getRotationY(sequenceStep, time),
+                            sequenceStartZ + sequence.getRotationZ(sequenceStep, time));
+                }
+            };
+
+    private final AnimatorListenerAdapter sequenceListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationRepeat(Animator animation) {
+            super.onAnimationRepeat(animation);
+            // Next cycle goes on from where this one is left, kept in range for endless loops
+            sequenceStep = 0;
+            sequenceStartX = rotationState.wrap(sequenceStartX + sequence.getCycleRotationX());
+            sequenceStartY = rotationState.wrap(sequenceStartY + sequence.getCycleRotationY());
+            sequenceStartZ = (sequenceStartZ + sequence.getCycleRotationZ()) % 360;
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            super.onAnimationEnd(animation);
+            if (rootView == null) {
+                return;
+            }
+            if (animation == activeAnimator) {
+                activeAnimator = null;
+                notifyRotationCompleted();
+                endSnapshot();
+                endMetricsSession();
+            }
+            releaseLayer();
+        }
+    };
+
+    /**
+     * Rotates half a turn around one axis of the direction, y if it has one, x or z otherwise.
+     * With both axes it used to rotate each of them to z rotation plus 180, which doesn't flip the view
      */
     public void rotateOnce() {
-        float toDegree;
-        if (rotation == ROTATE_X) {
-            toDegree = rootView.getRotationX();
-        } else if (rotation == ROTATE_Y) {
-            toDegree = rootView.getRotationY();
+        if (hasAxis(rotation, ROTATE_Y)) {
+            rotate(ROTATE_Y, rootView.getRotationY() + 180);
+        } else if (hasAxis(rotation, ROTATE_X)) {
+            rotate(ROTATE_X, rootView.getRotationX() + 180);
         } else {
-            toDegree = rootView.getRotation();
+            rotate(ROTATE_Z, rootView.getRotation() + 180);
         }
-        toDegree += 180;
-        rotate(rotation, toDegree);
     }
 
     /**
-     * Returns true if currently frontView is visible, false otherwise
+     * Returns true if currently first face is visible, false otherwise
      */
     public boolean isFront() {
         return getCurrentVisibleView() == FRONT_VIEW;
     }
 
     /**
-     * Returns currentVisibleView value as {@link Rotatable.Side}
+     * Returns currentVisibleView value as {@link Rotatable.Side},
+     * with more than two faces any face but the first one is back
      */
     public
     @Side
@@ -243,6 +745,17 @@ public class Rotatable implements View.OnTouchListener {
         return currentVisibleView;
     }
 
+    /**
+     * Returns index of visible face in the order they are given to {@link Builder#faces(int...)}
+     */
+    public int getCurrentFace() {
+        return currentFace;
+    }
+
+    public int getFaceCount() {
+        return faceIds != null ? faceIds.length : 0;
+    }
+
     public float getCurrentXRotation() {
         return currentXRotation;
     }
@@ -251,286 +764,1554 @@ public class Rotatable implements View.OnTouchListener {
         return currentYRotation;
     }
 
-    private Animator getAnimatorForProperty(Property property, final int direction, float degree) {
-        ObjectAnimator animator = ObjectAnimator.ofFloat(rootView, property, degree);
+    public float getCurrentZRotation() {
+        return currentZRotation;
+    }
 
-        if (shouldSwapViews) {
-            animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+    /**
+     * Crossings of a rotate animation are solved before it starts, so on each frame
+     * it is only compared with time of the next one, view is not touched until then
+     */
+    private final ValueAnimator.AnimatorUpdateListener swapKeyframeListener =
+            new ValueAnimator.AnimatorUpdateListener() {
                 @Override
                 public void onAnimationUpdate(ValueAnimator animation) {
-                    updateRotationValues(false);
-                    swapViews(direction);
+                    // Play time is scaled by animator duration scale, duration of animator is not
+                    float fraction = swapDuration > 0 ? animation.getCurrentPlayTime() / swapDuration : 1;
+                    while (swapTimeline.hasNext() && swapTimeline.nextFraction() <= fraction) {
+                        currentXRotation = swapTimeline.nextRotationX();
+                        currentYRotation = swapTimeline.nextRotationY();
+                        swapTimeline.advance();
+                        swapViews();
+                    }
                 }
-            });
-        }
-        return animator;
-    }
+            };
 
-    private void updateRotationValues(boolean notifyListener) {
-        currentXRotation = rootView.getRotationX();
-        currentYRotation = rootView.getRotationY();
+    /**
+     * Rotation is left to ViewPropertyAnimator without any listener of rotatable on it, so where
+     * such animations are run on RenderThread it stays smooth while main thread is busy.
+     * Sides are swapped at crossings solved upfront and end is caught by a runnable posted
+     * for it, instead of reading rotation back from view on each frame.
+     */
+    private void startRenderThreadRotation(ViewPropertyAnimator animator, int duration,
+                                           TimeInterpolator interpolator, float endX, float endY, float endZ) {
+        animator.setDuration(duration).setStartDelay(0).setInterpolator(interpolator);
 
-        if (notifyListener) {
-            notifyListenerRotationChanged();
+        if (shouldSwapViews) {
+            swapTimeline.solve(currentXRotation, endX, currentYRotation, endY, interpolator);
+        } else {
+            swapTimeline.clear();
         }
+
+        renderThreadEndX = endX;
+        renderThreadEndY = endY;
+        renderThreadEndZ = endZ;
+        renderThreadDuration = duration * getDurationScale();
+        renderThreadStartTime = SystemClock.uptimeMillis();
+        renderThreadRotating = true;
+
+        acquireLayer();
+        beginMetricsSession(RotationMetrics.SESSION_ANIMATION);
+        animator.start();
+        scheduleRenderThreadKeyframe();
     }
 
-    @Override
-    public boolean onTouch(View v, MotionEvent event) {
-        if (touchEnable) {
-            switch (event.getAction()) {
-                case MotionEvent.ACTION_DOWN: {
-                    restoreOldPositions(event);
-                    break;
-                }
-                case MotionEvent.ACTION_MOVE: {
-                    restoreNewPositions(event);
-                    handleRotation();
+    /**
+     * ViewPropertyAnimator of a view is shared, so caller's listener takes itself off once its
+     * animation ends. It is not cleared by the last keyframe, which may run a frame before
+     * animator delivers its end to the listener
+     */
+    private class RenderThreadListener implements Animator.AnimatorListener {
 
-                    if (shouldSwapViews) {
-                        swapViews(rotation);
-                    }
-                    notifyListenerRotationChanged();
-                    break;
-                }
-                case MotionEvent.ACTION_CANCEL:
-                case MotionEvent.ACTION_UP: {
-                    fitRotation();
-                    break;
-                }
-            }
-            return true;
-        } else {
-            return false;
+        private final Animator.AnimatorListener listener;
+
+        RenderThreadListener(Animator.AnimatorListener listener) {
+            this.listener = listener;
         }
-    }
 
-    private void restoreOldPositions(MotionEvent event) {
-        if (shouldRotateX()) {
-            oldY = getYValue(event.getRawY());
+        @Override
+        public void onAnimationStart(Animator animation) {
+            listener.onAnimationStart(animation);
         }
 
-        if (shouldRotateY()) {
-            oldX = getXValue(event.getRawX());
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            if (rootView != null) {
+                rootView.animate().setListener(null);
+            }
+            listener.onAnimationEnd(animation);
         }
-    }
 
-    private float getXValue(float rawX) {
-        if (rotationCount != NULL_INT && maxDistanceX != NULL_INT) {
-            return rawX * rotationCount * 180 / maxDistanceX;
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            listener.onAnimationCancel(animation);
         }
 
-        if (rotationDistance != NULL_INT) {
-            return rawX * 180 / rotationDistance;
+        @Override
+        public void onAnimationRepeat(Animator animation) {
+            listener.onAnimationRepeat(animation);
         }
+    }
 
-        return rawX;
+    private void scheduleRenderThreadKeyframe() {
+        float fraction = swapTimeline.hasNext() ? swapTimeline.nextFraction() : 1;
+        long elapsed = SystemClock.uptimeMillis() - renderThreadStartTime;
+        long delay = Math.max(0, (long) (fraction * renderThreadDuration) - elapsed);
+        ViewCompat.postOnAnimationDelayed(rootView, renderThreadKeyframe, delay);
     }
 
-    private float getYValue(float rawY) {
-        if (rotationCount != NULL_INT && maxDistanceY != NULL_INT) {
-            return rawY * rotationCount * 180 / maxDistanceY;
-        }
+    private final Runnable renderThreadKeyframe = new Runnable() {
+        @Override
+        public void run() {
+            if (rootView == null || !renderThreadRotating) {
+                return;
+            }
 
-        if (rotationDistance != NULL_INT) {
-            return rawY * 180 / rotationDistance;
-        }
+            long elapsed = SystemClock.uptimeMillis() - renderThreadStartTime;
+            float fraction = renderThreadDuration > 0 ? elapsed / renderThreadDuration : 1;
+            while (swapTimeline.hasNext() && swapTimeline.nextFraction() <= fraction) {
+                currentXRotation = swapTimeline.nextRotationX();
+                currentYRotation = swapTimeline.nextRotationY();
+                swapTimeline.advance();
+                swapViews();
+            }
 
-        return rawY;
-    }
+            if (fraction < 1) {
+                scheduleRenderThreadKeyframe();
+                return;
+            }
 
-    private void restoreNewPositions(MotionEvent event) {
-        if (shouldRotateX()) {
-            if (rotationCount != NULL_INT && maxDistanceY == NULL_INT) {
-                maxDistanceY = (event.getRawY() - oldY) > 0 ? (getScreenHeight() - oldY) : oldY;
-                oldY = getYValue(oldY);
+            // View may not be synced with RenderThread yet, so end values are taken as they are
+            renderThreadRotating = false;
+            currentXRotation = renderThreadEndX;
+            currentYRotation = renderThreadEndY;
+            currentZRotation = renderThreadEndZ;
+            if (shouldSwapViews) {
+                swapViews();
             }
-            currentY = getYValue(event.getRawY());
+            endSnapshot();
+            notifyRotationCompleted();
+            releaseLayer();
+            endMetricsSession();
         }
+    };
 
-        if (shouldRotateY()) {
-            if (rotationCount != NULL_INT && maxDistanceX == NULL_INT) {
-                maxDistanceX = (event.getRawX() - oldX) > 0 ? (getScreenWidth() - oldX) : oldX;
-                oldX = getXValue(oldX);
-            }
-            currentX = getXValue(event.getRawX());
+    /**
+     * ViewPropertyAnimator follows animator duration scale of developer options,
+     * so timings posted for it need to do the same
+     */
+    private float getDurationScale() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            ContentResolver resolver = rootView.getContext().getContentResolver();
+            return Settings.Global.getFloat(resolver, Settings.Global.ANIMATOR_DURATION_SCALE, 1);
         }
+        return 1;
     }
 
-    private int getScreenWidth() {
-        if (screenWidth == NULL_INT) {
-            calculateScreenDimensions();
+    private void updateRotationValues(boolean notifyListener) {
+        currentXRotation = rootView.getRotationX();
+        currentYRotation = rootView.getRotationY();
+        currentZRotation = rootView.getRotation();
+
+        if (notifyListener) {
+            notifyRotationCompleted();
         }
-        return screenWidth;
     }
 
-    private int getScreenHeight() {
-        if (screenHeight == NULL_INT) {
-            calculateScreenDimensions();
+    /**
+     * Final values of a rotation should not wait for next frame or sample
+     */
+    private void notifyRotationCompleted() {
+        if (stream != null) {
+            stream.emitRotation(currentXRotation, currentYRotation, currentZRotation);
+            stream.flush();
         }
-        return screenHeight;
+        dispatchRotationChanged();
     }
 
-    private void calculateScreenDimensions() {
-        Display display = ((WindowManager) rootView.getContext()
-                .getSystemService(Context.WINDOW_SERVICE)).getDefaultDisplay();
-        DisplayMetrics metrics = new DisplayMetrics();
-        display.getMetrics(metrics);
-        screenWidth = metrics.widthPixels;
-        screenHeight = metrics.heightPixels;
+    View getView() {
+        return rootView;
     }
 
-    private void measureScreenUpToOrientation(int screenOrientation) {
-        int tempWidth = screenWidth, tempHeight = screenHeight;
-        if (screenOrientation == Configuration.ORIENTATION_LANDSCAPE) {
-            /**
-             * If screenOrientation is landscape, then width will have a larger value than height
-             */
-            screenWidth = Math.max(tempWidth, tempHeight);
-            screenHeight = Math.min(tempWidth, tempHeight);
-        } else {
-            /**
-             * If screenOrientation:
-             * is portrait, then width will have a smaller value than height
-             * is square, then width and height will be same
-             * is unknown, then unknown to rotatable as well
-             * so either way...
-             */
-            screenWidth = Math.min(tempWidth, tempHeight);
-            screenHeight = Math.max(tempWidth, tempHeight);
-        }
+    @Direction
+    int getDirection() {
+        return rotation;
     }
 
-    private boolean shouldRotateX() {
-        return rotation == ROTATE_X || rotation == ROTATE_BOTH;
+    /**
+     * While rotatable is a member of a {@link RotatableGroup}, group receives touch events
+     * on behalf of rotatable and passes them to {@link #onTouch(View, MotionEvent)}
+     */
+    void setGroup(RotatableGroup group) {
+        this.group = group;
+        this.grouped = group != null;
+        if (rootView != null) {
+            rootView.setOnTouchListener(grouped ? null : this);
+        }
     }
 
-    private boolean shouldRotateY() {
-        return rotation == ROTATE_Y || rotation == ROTATE_BOTH;
+    /**
+     * Rotations driven from outside, such as {@link RotatableGroup} frames,
+     * need to go through this method so sides and listener keep up with them
+     */
+    void applyRotation(float rotationX, float rotationY) {
+        applyRotation(rotationX, rotationY, currentZRotation);
     }
 
-    private void handleRotation() {
-        if (shouldRotateX()) {
-            float newXRotation = (rootView.getRotationX() + (oldY - currentY)) % 360;
-            rootView.setRotationX(newXRotation);
-            currentXRotation = newXRotation;
-            oldY = currentY;
-        }
+    void applyRotation(float rotationX, float rotationY, float rotationZ) {
+        applyRotation(rotationX, rotationY, rotationZ, true);
+    }
 
-        if (shouldRotateY()) {
-            float newYRotation;
-            if (isInFrontArea(currentXRotation)) {
-                newYRotation = (rootView.getRotationY() + (currentX - oldX)) % 360;
-            } else {
-                newYRotation = (rootView.getRotationY() - (currentX - oldX)) % 360;
-            }
+    private void applyRotation(float rotationX, float rotationY, float rotationZ, boolean dispatchEvents) {
+        rootView.setRotationX(rotationX);
+        rootView.setRotationY(rotationY);
+        rootView.setRotation(rotationZ);
+        currentXRotation = rotationX;
+        currentYRotation = rotationY;
+        currentZRotation = rotationZ;
 
-            rootView.setRotationY(newYRotation);
-            currentYRotation = newYRotation;
-            oldX = currentX;
+        if (shouldSwapViews) {
+            swapViews(dispatchEvents);
         }
+        notifyListenerRotationChanged();
     }
 
-    private boolean isInFrontArea(float value) {
-        return (-270 >= value && value >= -360)
-                || (-90 <= value && value <= 90)
-                || (270 <= value && value <= 360);
+    void onExternalRotationStart() {
+        cancelRunningRotation();
+        endSnapshot();
+        acquireLayer();
+        beginMetricsSession(RotationMetrics.SESSION_ANIMATION);
+        groupFlipping = true;
     }
 
-    private void swapViews(int rotation) {
-        boolean isFront = false;
-        if (rotation == ROTATE_Y) {
-            isFront = isInFrontArea(currentYRotation);
-
-            if (!isInFrontArea(currentXRotation)) {
-                isFront = !isFront;
-            }
+    void onExternalRotationEnd() {
+        if (!groupFlipping) {
+            return;
         }
+        groupFlipping = false;
+        rootView.setRotationX(rotationState.wrap(rootView.getRotationX()));
+        rootView.setRotationY(rotationState.wrap(rootView.getRotationY()));
+        rootView.setRotation(rootView.getRotation() % 360);
+        updateRotationValues(true);
+        releaseLayer();
+        endMetricsSession();
+    }
 
-        if (rotation == ROTATE_X) {
-            isFront = isInFrontArea(currentXRotation);
+    @Override
+    public boolean onTouch(View v, MotionEvent event) {
+        if (!touchEnable) {
+            return false;
+        }
 
-            if (!isInFrontArea(currentYRotation)) {
-                isFront = !isFront;
+        updateScreenOffset(event);
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN: {
+                /**
+                 * Touch catches a running rotation, but nothing else is started until finger moves
+                 * far enough in the right direction, so touches which only pass over the view cost nothing
+                 */
+                rotationCaught = isRotating();
+                cancelRunningRotation();
+                // Rotation may also be left in between sides, such as a group flip taken over
+                rotationCaught |= freeOffAxis || RotationState.snap(currentXRotation) != currentXRotation
+                        || RotationState.snap(currentYRotation) != currentYRotation;
+                gestureState = GESTURE_POSSIBLE;
+                gestureDirection = rotation;
+                twisting = false;
+                activePointerId = event.getPointerId(0);
+                velocityTracker.clear();
+                trackVelocity(event);
+                downRawX = lastRawX = event.getRawX();
+                downRawY = lastRawY = event.getRawY();
+                return true;
             }
-        }
+            case MotionEvent.ACTION_POINTER_DOWN: {
+                trackVelocity(event);
+                if (shouldRotateZ() && !twisting && gestureState != GESTURE_REJECTED) {
+                    int activeIndex = event.findPointerIndex(activePointerId);
+                    int index = event.getActionIndex();
+                    if (activeIndex >= 0) {
+                        twisting = true;
+                        twistPointerId = event.getPointerId(index);
+                        lastTwistAngle = getTwistAngle(event, activeIndex, index);
+                        zDetentIndex = (int) Math.floor(currentZRotation / zDetent);
+                        if (gestureState == GESTURE_POSSIBLE) {
+                            startGesture(lastRawX, lastRawY);
+                        }
+                    }
+                }
+                return gestureState != GESTURE_REJECTED;
+            }
+            case MotionEvent.ACTION_POINTER_UP: {
+                trackVelocity(event);
+                int index = event.getActionIndex();
+                int pointerId = event.getPointerId(index);
+                if (twisting && (pointerId == activePointerId || pointerId == twistPointerId)) {
+                    // Remaining finger goes on dragging from here
+                    twisting = false;
+                }
+                if (pointerId == activePointerId) {
+                    // Remaining finger takes over from where the lifted one is left, so view doesn't jump
+                    int newIndex = index == 0 ? 1 : 0;
+                    mapToScreen(event.getX(newIndex), event.getY(newIndex));
+                    float rawX = touchPoint[0];
+                    float rawY = touchPoint[1];
+                    shiftTouchAnchor(rawX - lastRawX, rawY - lastRawY);
+                    activePointerId = event.getPointerId(newIndex);
+                    lastRawX = rawX;
+                    lastRawY = rawY;
+                }
+                return gestureState != GESTURE_REJECTED;
+            }
+            case MotionEvent.ACTION_MOVE: {
+                if (gestureState == GESTURE_REJECTED || gestureState == GESTURE_IDLE) {
+                    return false;
+                }
+                trackVelocity(event);
 
-        if (rotation == ROTATE_BOTH) {
-            isFront = (currentXRotation > -90 && currentXRotation < 90) && (currentYRotation > -90 && currentYRotation < 90)
+                int index = event.findPointerIndex(activePointerId);
+                if (index < 0) {
+                    return false;
+                }
+                mapToScreen(event.getX(index), event.getY(index));
+                float rawX = touchPoint[0];
+                float rawY = touchPoint[1];
+                if (twisting) {
+                    // Fingers only turn the view while they twist, dragging both doesn't rotate around x or y
+                    shiftTouchAnchor(rawX - lastRawX, rawY - lastRawY);
+                }
+                lastRawX = rawX;
+                lastRawY = rawY;
 
-                    || (currentXRotation > -90 && currentXRotation < 90) && (currentYRotation > -360 && currentYRotation < -270)
-                    || (currentXRotation > -360 && currentXRotation < -270) && (currentYRotation > -90 && currentYRotation < 90)
+                if (gestureState == GESTURE_POSSIBLE && !recognizeGesture(rawX, rawY)) {
+                    return gestureState != GESTURE_REJECTED;
+                }
 
-                    || (currentXRotation > -90 && currentXRotation < 90) && (currentYRotation > 270 && currentYRotation < 360)
-                    || (currentXRotation > 270 && currentXRotation < 360) && (currentYRotation > -90 && currentYRotation < 90)
+                // Finger takes over the spring it caught
+                springCarried = false;
+                if (metrics != null) {
+                    metrics.onTouchEvent(event.getEventTime());
+                }
 
-                    || (currentXRotation > 90 && currentXRotation < 270) && (currentYRotation > -270 && currentYRotation < -90)
-                    || (currentXRotation > -270 && currentXRotation < -90) && (currentYRotation > 90 && currentYRotation < 270)
+                if (twisting) {
+                    int twistIndex = event.findPointerIndex(twistPointerId);
+                    if (twistIndex >= 0) {
+                        handleTwist(getTwistAngle(event, index, twistIndex));
+                    }
+                    notifyListenerRotationChanged();
+                    return true;
+                }
 
-                    || (currentXRotation > 90 && currentXRotation < 270) && (currentYRotation > 90 && currentYRotation < 270)
-                    || (currentXRotation > -270 && currentXRotation < -90) && (currentYRotation > -270 && currentYRotation < -90);
-        }
+                /**
+                 * Move events carry all touch samples since the previous one,
+                 * each of them is integrated but view is updated only once
+                 */
+                for (int i = 0, size = event.getHistorySize(); i < size; i++) {
+                    mapToScreen(event.getHistoricalX(index, i), event.getHistoricalY(index, i));
+                    restoreNewPositions(touchPoint[0], touchPoint[1]);
+                    handleRotation();
+                }
+                restoreNewPositions(rawX, rawY);
+                handleRotation();
+                applyTouchRotation();
+
+                if (shouldSwapViews) {
+                    swapViews();
+                }
+                notifyListenerRotationChanged();
+                return true;
+            }
+            case MotionEvent.ACTION_CANCEL:
+            case MotionEvent.ACTION_UP: {
+                int state = gestureState;
+                gestureState = GESTURE_IDLE;
+                twisting = false;
+                trackVelocity(event);
+
+                if (state == GESTURE_ROTATING) {
+                    if (eventListener != null) {
+                        eventListener.onGestureEnd();
+                    }
+                    if (stream != null) {
+                        stream.emitPhase(RotationStream.PHASE_GESTURE_END);
+                    }
+                    endMetricsSession();
+                    fitRotation();
 
-        boolean shouldSwap = (isFront && currentVisibleView == BACK_VIEW) || (!isFront && currentVisibleView == FRONT_VIEW);
-        if (shouldSwap) {
-            frontView.setVisibility(isFront ? View.VISIBLE : View.GONE);
-            backView.setVisibility(isFront ? View.GONE : View.VISIBLE);
-            currentVisibleView = isFront ? FRONT_VIEW : BACK_VIEW;
+                    // Fit animation holds its own layer request, so this will not drop the layer
+                    if (touchLayerAcquired) {
+                        touchLayerAcquired = false;
+                        releaseLayer();
+                    }
+                    return true;
+                }
+
+                if (state == GESTURE_POSSIBLE) {
+                    settleCaughtRotation();
+                }
+                return state == GESTURE_POSSIBLE;
+            }
         }
+        return gestureState != GESTURE_REJECTED;
     }
 
-    private void notifyListenerRotationChanged() {
-        if (rotationListener != null) {
-            rotationListener.onRotationChanged(currentXRotation, currentYRotation);
+    /**
+     * Gesture becomes a rotation once finger passes touch slop along an axis rotatable rotates around,
+     * a gesture along the other axis is left to parent, such as a scrolling list. Parent is
+     * asked not to intercept only after that, so it can still scroll while gesture is undecided.
+     */
+    private boolean recognizeGesture(float rawX, float rawY) {
+        float distanceX = Math.abs(rawX - downRawX);
+        float distanceY = Math.abs(rawY - downRawY);
+        if (distanceX <= touchSlop && distanceY <= touchSlop) {
+            return false;
         }
-    }
 
-    private void fitRotation() {
-        AnimatorSet animatorSet = new AnimatorSet();
-        animatorSet.setDuration(FIT_ANIM_TIME);
-        animatorSet.setInterpolator(new FastOutSlowInInterpolator());
+        // Only a twist rotates around z, so a single finger keeps waiting for the second one
+        if (!hasAxis(rotation, ROTATE_X | ROTATE_Y)) {
+            return false;
+        }
 
-        ArrayList<Animator> animators = new ArrayList<>();
+        // Horizontal drags rotate around y and vertical ones around x
+        boolean horizontal = distanceX > distanceY;
+        if ((horizontal && !hasAxis(rotation, ROTATE_Y)) || (!horizontal && !hasAxis(rotation, ROTATE_X))) {
+            gestureState = GESTURE_REJECTED;
+            settleCaughtRotation();
+            return false;
+        }
 
-        if (shouldRotateY()) {
-            animators.add(ObjectAnimator.ofFloat(rootView, View.ROTATION_Y, getRequiredRotation(rootView.getRotationY())));
+        if (axisLock && hasAxis(rotation, ROTATE_X) && hasAxis(rotation, ROTATE_Y)) {
+            gestureDirection = horizontal ? ROTATE_Y : ROTATE_X;
         }
+        startGesture(rawX, rawY);
+        return true;
+    }
 
-        if (shouldRotateX()) {
-            animators.add(ObjectAnimator.ofFloat(rootView, View.ROTATION_X, getRequiredRotation(rootView.getRotationX())));
+    /**
+     * Takes over the gesture, either recognized by drag or started by a twist
+     */
+    private void startGesture(float rawX, float rawY) {
+        gestureState = GESTURE_ROTATING;
+        if (rootView.getParent() != null) {
+            rootView.getParent().requestDisallowInterceptTouchEvent(true);
         }
 
-        animatorSet.playTogether(animators);
-        animatorSet.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                super.onAnimationEnd(animation);
-                updateRotationValues(true);
+        if (eventListener != null) {
+            eventListener.onGestureStart();
+        }
+        if (stream != null) {
+            stream.emitPhase(RotationStream.PHASE_GESTURE_START);
+        }
+        if (!touchLayerAcquired) {
+            touchLayerAcquired = true;
+            acquireLayer();
+        }
+        beginSnapshot();
+        beginMetricsSession(RotationMetrics.SESSION_GESTURE);
+
+        // Rotation starts from here, instead of jumping as far as touch slop
+        restoreOldPositions(rawX, rawY);
+
+        freeGesture = freeRotation && gestureRotatesX() && gestureRotatesY();
+        if (freeGesture) {
+            orientation.set(currentXRotation, currentYRotation, currentZRotation);
+            // View may be left off any axis, until an orientation snap brings it back
+            freeOffAxis = true;
+        }
+    }
+
+    /**
+     * Angle of the line between two pointers on screen. Event coordinates are local to the view,
+     * which turns with the twist and is mirrored while it shows its back, so they are brought back
+     * to screen by view's own rotation. Group passes events in its coordinates, which need nothing.
+     * This is the only trigonometry of a twist, everything else is an add
+     */
+    private float getTwistAngle(MotionEvent event, int index, int otherIndex) {
+        float angle = (float) Math.toDegrees(Math.atan2(event.getY(otherIndex) - event.getY(index),
+                event.getX(otherIndex) - event.getX(index)));
+        if (grouped) {
+            return angle;
+        }
+        // Z rotation is applied innermost, so while view is mirrored it turns the other way on screen
+        boolean mirrored = RotationState.isFront(currentXRotation) != RotationState.isFront(currentYRotation);
+        return mirrored ? -angle - currentZRotation : angle + currentZRotation;
+    }
+
+    private void handleTwist(float angle) {
+        // Angle wraps around at 180, a twist never turns as far as half a turn between two events
+        float delta = angle - lastTwistAngle;
+        if (delta > 180) {
+            delta -= 360;
+        } else if (delta <= -180) {
+            delta += 360;
+        }
+        lastTwistAngle = angle;
+        if (freeGesture) {
+            orientation.rotateZ(delta);
+            applyOrientation();
+        } else {
+            currentZRotation += delta;
+            rootView.setRotation(currentZRotation);
+        }
+
+        int detentIndex = (int) Math.floor(currentZRotation / zDetent);
+        if (detentIndex != zDetentIndex) {
+            zDetentIndex = detentIndex;
+            dispatchDetent(DETENT_Z);
+        }
+    }
+
+    /**
+     * A rotation which is stopped by a touch that turns out not to be a rotation settles down again
+     */
+    private void settleCaughtRotation() {
+        if (rotationCaught) {
+            rotationCaught = false;
+            velocityTracker.clear();
+            fitRotation();
+        }
+    }
+
+    private boolean isRotating() {
+        return activeAnimator != null || runningFitAnimators > 0 || springFramePosted
+                || renderThreadRotating || attentionSettling || groupFlipping;
+    }
+
+    /**
+     * Event coordinates are local to the view, so they are turned, mirrored and put in perspective
+     * along with it. Raw coordinates are only given for the current position of the first pointer,
+     * which places view's parent on screen, so any other local point is mapped into parent
+     * by view's matrix and shifted by the same offset. Group passes events in its own
+     * coordinates, which are never rotated.
+     */
+    private void updateScreenOffset(MotionEvent event) {
+        mapToParent(event.getX(), event.getY());
+        screenOffsetX = event.getRawX() - touchPoint[0];
+        screenOffsetY = event.getRawY() - touchPoint[1];
+    }
+
+    /**
+     * Writes screen position of given local point into touch point
+     */
+    private void mapToScreen(float x, float y) {
+        mapToParent(x, y);
+        touchPoint[0] += screenOffsetX;
+        touchPoint[1] += screenOffsetY;
+    }
+
+    private void mapToParent(float x, float y) {
+        touchPoint[0] = x;
+        touchPoint[1] = y;
+        if (!grouped) {
+            rootView.getMatrix().mapPoints(touchPoint);
+        }
+    }
+
+    private void shiftTouchAnchor(float distanceX, float distanceY) {
+        downRawX += distanceX;
+        downRawY += distanceY;
+        if (scaleXResolved) {
+            offsetX -= distanceX * scaleX;
+        }
+        if (scaleYResolved) {
+            offsetY -= distanceY * scaleY;
+        }
+    }
+
+    /**
+     * View's own coordinates are meaningless while it is being rotated, so velocity is tracked
+     * on a copy of the event which is mapped to screen the same way as touch points,
+     * all pointers and historical samples at once. Copies are recycled by MotionEvent itself
+     */
+    private void trackVelocity(MotionEvent event) {
+        if (grouped) {
+            screenMatrix.reset();
+        } else {
+            screenMatrix.set(rootView.getMatrix());
+        }
+        screenMatrix.postTranslate(screenOffsetX, screenOffsetY);
+
+        MotionEvent screenEvent = MotionEvent.obtain(event);
+        screenEvent.transform(screenMatrix);
+        velocityTracker.addMovement(screenEvent);
+        screenEvent.recycle();
+    }
+
+    /**
+     * Touch to degree scale of each axis is calculated once when gesture starts,
+     * so each sample only costs a multiply and an add per axis
+     */
+    private void restoreOldPositions(float rawX, float rawY) {
+        downRawX = rawX;
+        downRawY = rawY;
+        oldX = 0;
+        oldY = 0;
+
+        if (rotationCount != NULL_INT) {
+            /**
+             * Rotation count is reached at the edge of screen user drags towards,
+             * so both scales are prepared and the one on dragged side is picked on first move
+             */
+            ensureWindowBounds();
+            float degrees = rotationCount * 180;
+            countScaleXToStart = degrees / Math.max(1, downRawX - windowLeft);
+            countScaleXToEnd = degrees / Math.max(1, windowLeft + windowWidth - downRawX);
+            countScaleYToStart = degrees / Math.max(1, downRawY - windowTop);
+            countScaleYToEnd = degrees / Math.max(1, windowTop + windowHeight - downRawY);
+            scaleX = 0;
+            scaleY = 0;
+            scaleXResolved = false;
+            scaleYResolved = false;
+        } else {
+            float scale = rotationDistance != NULL_INT ? 180 / rotationDistance : 1;
+            resolveScaleX(scale);
+            resolveScaleY(scale);
+        }
+    }
+
+    private void resolveScaleX(float scale) {
+        scaleX = scale;
+        offsetX = -downRawX * scale;
+        scaleXResolved = true;
+    }
+
+    private void resolveScaleY(float scale) {
+        scaleY = scale;
+        offsetY = -downRawY * scale;
+        scaleYResolved = true;
+    }
+
+    private void restoreNewPositions(float rawX, float rawY) {
+        if (gestureRotatesX()) {
+            if (!scaleYResolved) {
+                resolveScaleY(rawY > downRawY ? countScaleYToEnd : countScaleYToStart);
+            }
+            currentY = mapTravel(rawY * scaleY + offsetY);
+        }
+
+        if (gestureRotatesY()) {
+            if (!scaleXResolved) {
+                resolveScaleX(rawX > downRawX ? countScaleXToEnd : countScaleXToStart);
+            }
+            currentX = mapTravel(rawX * scaleX + offsetX);
+        }
+    }
+
+    /**
+     * Maps degrees travelled by finger since touch down through gesture curve, if there is any
+     */
+    private float mapTravel(float degrees) {
+        return gestureCurve == null ? degrees : gestureCurve.map(degrees);
+    }
+
+    /**
+     * Top most view of the window is watched for layout changes, so rotation count is always
+     * calculated by the space rotatable actually has on screen, also in split or freeform windows
+     */
+    private void attachWindowView() {
+        windowView = rootView.getRootView();
+        windowView.addOnLayoutChangeListener(windowLayoutListener);
+        updateWindowBounds();
+    }
+
+    private void detachWindowView() {
+        if (windowView != null) {
+            windowView.removeOnLayoutChangeListener(windowLayoutListener);
+            windowView = null;
+        }
+    }
+
+    private void updateWindowBounds() {
+        windowView.getLocationOnScreen(windowLocation);
+        windowLeft = windowLocation[0];
+        windowTop = windowLocation[1];
+        windowWidth = windowView.getWidth();
+        windowHeight = windowView.getHeight();
+    }
+
+    /**
+     * Until window is laid out, display size is the best guess
+     */
+    private void ensureWindowBounds() {
+        if (windowWidth <= 0 || windowHeight <= 0) {
+            DisplayMetrics metrics = rootView.getResources().getDisplayMetrics();
+            windowLeft = 0;
+            windowTop = 0;
+            windowWidth = metrics.widthPixels;
+            windowHeight = metrics.heightPixels;
+        }
+    }
+
+    private final View.OnLayoutChangeListener windowLayoutListener = new View.OnLayoutChangeListener() {
+        @Override
+        public void onLayoutChange(View v, int left, int top, int right, int bottom,
+                                   int oldLeft, int oldTop, int oldRight, int oldBottom) {
+            updateWindowBounds();
+        }
+    };
+
+    private final View.OnAttachStateChangeListener attachListener = new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(View v) {
+            attachWindowView();
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            detachWindowView();
+        }
+    };
+
+    private boolean shouldRotateX() {
+        return hasAxis(rotation, ROTATE_X);
+    }
+
+    private boolean shouldRotateY() {
+        return hasAxis(rotation, ROTATE_Y);
+    }
+
+    private boolean shouldRotateZ() {
+        return hasAxis(rotation, ROTATE_Z);
+    }
+
+    /**
+     * Axes touch rotates during current gesture, which may be locked to one of them
+     */
+    private boolean gestureRotatesX() {
+        return hasAxis(gestureDirection, ROTATE_X);
+    }
+
+    private boolean gestureRotatesY() {
+        return hasAxis(gestureDirection, ROTATE_Y);
+    }
+
+    private void handleRotation() {
+        if (freeGesture) {
+            // Same directions as below, but around screen axes whichever way view is turned
+            orientation.rotate(oldY - currentY, currentX - oldX);
+            oldY = currentY;
+            oldX = currentX;
+            return;
+        }
+
+        if (gestureRotatesX()) {
+            currentXRotation = rotationState.wrap(currentXRotation + (oldY - currentY));
+            oldY = currentY;
+        }
+
+        if (gestureRotatesY()) {
+            if (RotationState.isFront(currentXRotation)) {
+                currentYRotation = rotationState.wrap(currentYRotation + (currentX - oldX));
+            } else {
+                currentYRotation = rotationState.wrap(currentYRotation - (currentX - oldX));
+            }
+            oldX = currentX;
+        }
+    }
+
+    /**
+     * Writes rotation values integrated from touch samples into view. If prediction is enabled,
+     * view is moved as far as finger will be travelled by the time next frame is shown,
+     * prediction is not accumulated into rotation values though.
+     */
+    private void applyTouchRotation() {
+        if (freeGesture) {
+            applyOrientation();
+            return;
+        }
+
+        float predictionX = 0, predictionY = 0;
+        if (touchPrediction) {
+            velocityTracker.computeCurrentVelocity(1000, maxFlingVelocity);
+            if (gestureRotatesX()) {
+                predictionX = -velocityTracker.getYVelocity(activePointerId) * scaleY * frameInterval;
+            }
+            if (gestureRotatesY()) {
+                float degreeVelocity = velocityTracker.getXVelocity(activePointerId) * scaleX;
+                predictionY = (RotationState.isFront(currentXRotation) ? degreeVelocity : -degreeVelocity) * frameInterval;
+            }
+        }
+
+        if (gestureRotatesX()) {
+            rootView.setRotationX(currentXRotation + predictionX);
+        }
+
+        if (gestureRotatesY()) {
+            rootView.setRotationY(currentYRotation + predictionY);
+        }
+    }
+
+    /**
+     * Only one animation writes rotation of the view at a time. Any new rotation, touch or command,
+     * stops the running one and starts from where view currently is. A running spring
+     * hands its velocity over to touch, see {@link #catchSpring()}
+     */
+    private void cancelRunningRotation() {
+        if (activeAnimator != null) {
+            Animator animator = activeAnimator;
+            activeAnimator = null;
+            animator.cancel();
+        }
+
+        if (attentionSettling) {
+            rootView.animate().cancel();
+        }
+
+        if (renderThreadRotating) {
+            renderThreadRotating = false;
+            rootView.removeCallbacks(renderThreadKeyframe);
+            rootView.animate().cancel();
+            releaseLayer();
+        }
+
+        if (groupFlipping) {
+            // Group stops stepping this rotatable, it is left where flip was
+            groupFlipping = false;
+            group.onFlipCancelled(this);
+            releaseLayer();
+        }
+
+        fitCancelled = true;
+        if (fitAnimatorX != null && fitAnimatorX.isStarted()) {
+            fitAnimatorX.cancel();
+        }
+        if (fitAnimatorY != null && fitAnimatorY.isStarted()) {
+            fitAnimatorY.cancel();
+        }
+        if (fitAnimatorZ != null && fitAnimatorZ.isStarted()) {
+            fitAnimatorZ.cancel();
+        }
+        if (freeSnapAnimator != null && freeSnapAnimator.isStarted()) {
+            freeSnapAnimator.cancel();
+        }
+        fitCancelled = false;
+        freeGesture = false;
+        touchSnapping = false;
+
+        if (springSnapper != null) {
+            springCarried = false;
+            catchSpring();
+        }
+
+        // Interrupted rotation is still recorded up to where it is
+        endMetricsSession();
+        updateRotationValues(false);
+    }
+
+    /**
+     * Rotation animations and touch may overlap, so layer requests are counted
+     * and rootView gets back its own layer type only when the last one is released
+     */
+    private void acquireLayer() {
+        if (hardwareLayer && layerRequests++ == 0) {
+            defaultLayerType = rootView.getLayerType();
+            rootView.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+        }
+    }
+
+    private void releaseLayer() {
+        if (hardwareLayer && layerRequests > 0 && --layerRequests == 0 && rootView != null) {
+            rootView.setLayerType(defaultLayerType, null);
+        }
+    }
+
+    private void swapViews() {
+        swapViews(true);
+    }
+
+    /**
+     * Events are only dispatched for a face crossed by rotation, not for one a view is put on
+     */
+    private void swapViews(boolean dispatchEvents) {
+        boolean changed = freeGesture
+                ? rotationState.update(orientation.isFront() ? 0 : 1)
+                : rotationState.update(currentXRotation, currentYRotation);
+        if (!changed) {
+            // A jump by whole face count, such as by setRotation, brings the same face on the other side
+            mirrorFace(currentFace, rotationState.isCounterFlipped(currentFace));
+            return;
+        }
+
+        int face = rotationState.getFace();
+        if (!snapshotActive || !showSnapshot(face)) {
+            hideFace(currentFace);
+            showFace(face);
+        }
+        currentFace = face;
+
+        int side = rotationState.isFront() ? FRONT_VIEW : BACK_VIEW;
+        boolean sideChanged = side != currentVisibleView;
+        currentVisibleView = side;
+        if (!dispatchEvents) {
+            return;
+        }
+
+        if (metrics != null) {
+            metrics.onSideChanged();
+        }
+        if (eventListener != null) {
+            long start = metrics != null ? System.nanoTime() : 0;
+            if (sideChanged) {
+                eventListener.onSideChanged(side);
+            }
+            eventListener.onFaceChanged(face);
+            if (metrics != null) {
+                metrics.addListenerTime(System.nanoTime() - start);
+            }
+        }
+        if (stream != null) {
+            stream.emitFace(face);
+        }
+        dispatchDetent(DETENT_FACE);
+    }
+
+    /**
+     * Crossings are already found once by swapViews and handleTwist, so detents cost nothing per frame.
+     * Haptic feedback is only given while user drives the rotation, by touch or the snap after it,
+     * so sequences and programmatic flips don't buzz
+     */
+    private void dispatchDetent(@Detent int detent) {
+        if (hapticFeedback && detent != DETENT_SNAP
+                && (gestureState == GESTURE_ROTATING || touchSnapping)) {
+            rootView.performHapticFeedback(detent == DETENT_FACE
+                    ? HapticFeedbackConstants.VIRTUAL_KEY : HapticFeedbackConstants.KEYBOARD_TAP);
+        }
+        if (eventListener != null) {
+            eventListener.onDetent(detent);
+        }
+        if (stream != null) {
+            stream.emitDetent(detent);
+        }
+    }
+
+    /**
+     * Lets accessibility services flip the view, as a gesture is not an option for them
+     */
+    private final AccessibilityDelegateCompat accessibilityDelegate = new AccessibilityDelegateCompat() {
+        private AccessibilityNodeInfoCompat.AccessibilityActionCompat flipAction;
+
+        @Override
+        public void onInitializeAccessibilityNodeInfo(View host, AccessibilityNodeInfoCompat info) {
+            super.onInitializeAccessibilityNodeInfo(host, info);
+            if (touchEnable) {
+                if (flipAction == null) {
+                    flipAction = new AccessibilityNodeInfoCompat.AccessibilityActionCompat(
+                            R.id.rotatable_action_flip, host.getResources().getString(R.string.rotatable_action_flip));
+                }
+                info.addAction(flipAction);
+            }
+        }
+
+        @Override
+        public boolean performAccessibilityAction(View host, int action, Bundle args) {
+            if (action == R.id.rotatable_action_flip && touchEnable && rootView != null) {
+                rotateOnce();
+                return true;
+            }
+            return super.performAccessibilityAction(host, action, args);
+        }
+    };
+
+    /**
+     * Faces may be given as view stubs, they are inflated when they are shown for the first time.
+     * With more than two faces, the ones next to the visible face are inflated as well,
+     * so a stub is not inflated in the middle of a crossing unless it is the only other face
+     */
+    private void showFace(int face) {
+        View view = inflateFace(face);
+        mirrorFace(face, rotationState.isCounterFlipped(face));
+        view.setVisibility(View.VISIBLE);
+        if (swapMode == SWAP_ALPHA) {
+            view.setAlpha(1);
+        }
+
+        int count = faceViews.length;
+        if (count > 2) {
+            inflateFace((face + 1) % count);
+            inflateFace((face + count - 1) % count);
+        }
+    }
+
+    /**
+     * Face which comes up on the other side than it is laid out for is mirrored back by scale,
+     * horizontally for a turn around y and vertically for a turn around x.
+     * Axis it is mirrored on is kept, so it is undone the same way even if direction changes
+     */
+    private void mirrorFace(int face, boolean mirrored) {
+        int axis = !mirrored ? 0 : hasAxis(rotation, ROTATE_Y) ? ROTATE_Y : ROTATE_X;
+        if (faceMirrorAxes[face] == axis) {
+            return;
+        }
+
+        View view = faceViews[face];
+        flipScale(view, faceMirrorAxes[face]);
+        flipScale(view, axis);
+        faceMirrorAxes[face] = axis;
+    }
+
+    private static void flipScale(View view, int axis) {
+        if (axis == ROTATE_Y) {
+            view.setScaleX(-view.getScaleX());
+        } else if (axis == ROTATE_X) {
+            view.setScaleY(-view.getScaleY());
+        }
+    }
+
+    private void hideFace(int face) {
+        // Setting visibility of a stub would inflate it
+        if (!(faceViews[face] instanceof ViewStub)) {
+            hideFaceView(faceViews[face]);
+        }
+    }
+
+    /**
+     * Only gone needs a layout pass to hide a face, invisible and alpha keep its place
+     * in layout, so swapping faces with them doesn't cause measure or layout
+     */
+    private void hideFaceView(View view) {
+        if (swapMode == SWAP_GONE) {
+            view.setVisibility(View.GONE);
+        } else if (swapMode == SWAP_INVISIBLE) {
+            view.setVisibility(View.INVISIBLE);
+        } else {
+            // Visible is a no-op after the first time, so only alpha changes on swaps
+            view.setVisibility(View.VISIBLE);
+            view.setAlpha(0);
+        }
+    }
+
+    /**
+     * Faces this rotation may show are drawn into bitmaps, which are rotated in overlay of rootView
+     * instead of live faces until rotation settles. Live face is hidden by invisible,
+     * which doesn't need a layout pass
+     */
+    private void beginSnapshot() {
+        // A snapshot is drawn without the face's own scale, so a counter flipped face would show mirrored
+        if (!snapshotMode || snapshotActive || !shouldSwapViews || faceViews.length % 2 != 0
+                || Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            return;
+        }
+
+        if (snapshots == null || snapshots.length != faceViews.length) {
+            snapshots = new BitmapDrawable[faceViews.length];
+        }
+        int count = faceViews.length;
+        captureFace(currentFace);
+        captureFace((currentFace + 1) % count);
+        captureFace((currentFace + count - 1) % count);
+        if (snapshots[currentFace] == null) {
+            releaseSnapshots();
+            return;
+        }
+
+        snapshotActive = true;
+        snapshotLiveFace = currentFace;
+        faceViews[currentFace].setVisibility(View.INVISIBLE);
+        rootView.getOverlay().add(snapshots[currentFace]);
+    }
+
+    /**
+     * A face which is not inflated or laid out yet cannot be drawn, it is left out
+     */
+    private void captureFace(int face) {
+        View view = faceViews[face];
+        if (snapshots[face] != null || view instanceof ViewStub
+                || view.getWidth() == 0 || view.getHeight() == 0) {
+            return;
+        }
+
+        Bitmap bitmap = SnapshotPool.acquire(view.getWidth(), view.getHeight());
+        if (snapshotCanvas == null) {
+            snapshotCanvas = new Canvas();
+        }
+        snapshotCanvas.setBitmap(bitmap);
+        view.draw(snapshotCanvas);
+        snapshotCanvas.setBitmap(null);
+
+        int left = 0, top = 0;
+        for (View child = view; child != rootView; child = (View) child.getParent()) {
+            left += child.getLeft();
+            top += child.getTop();
+        }
+
+        BitmapDrawable snapshot = new BitmapDrawable(rootView.getResources(), bitmap);
+        snapshot.setBounds(left, top, left + view.getWidth(), top + view.getHeight());
+        snapshots[face] = snapshot;
+    }
+
+    /**
+     * Returns false if given face could not be captured, then live faces are back for the rest of rotation
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private boolean showSnapshot(int face) {
+        if (snapshots[face] == null) {
+            endSnapshot();
+            return false;
+        }
+
+        ViewOverlay overlay = rootView.getOverlay();
+        overlay.remove(snapshots[currentFace]);
+        overlay.add(snapshots[face]);
+        return true;
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private void endSnapshot() {
+        if (!snapshotActive) {
+            return;
+        }
+        snapshotActive = false;
+
+        rootView.getOverlay().remove(snapshots[currentFace]);
+        if (snapshotLiveFace != currentFace) {
+            hideFace(snapshotLiveFace);
+        }
+        showFace(currentFace);
+        releaseSnapshots();
+    }
+
+    private void releaseSnapshots() {
+        for (int i = 0; i < snapshots.length; i++) {
+            if (snapshots[i] != null) {
+                SnapshotPool.release(snapshots[i].getBitmap());
+                snapshots[i] = null;
+            }
+        }
+    }
+
+    private View inflateFace(int face) {
+        View view = faceViews[face];
+        if (view instanceof ViewStub) {
+            view = ((ViewStub) view).inflate();
+            hideFaceView(view);
+            faceViews[face] = view;
+            // Stub is gone from layout, its inflated id or id of the layout itself takes its place
+            inflatedIds[face] = view.getId();
+        }
+        return view;
+    }
+
+    /**
+     * A face which was a stub can already be inflated in a recycled view, then it is found by inflated id
+     */
+    private View findFace(int face) {
+        View view = rootView.findViewById(faceIds[face]);
+        if (view == null && inflatedIds[face] != View.NO_ID) {
+            view = rootView.findViewById(inflatedIds[face]);
+        }
+        return view;
+    }
+
+    /**
+     * Touch events may arrive a lot more often than frames are drawn,
+     * so listener is notified up to its delivery mode
+     */
+    private void notifyListenerRotationChanged() {
+        if (stream != null) {
+            // Each subscriber of stream throttles by itself
+            stream.emitRotation(currentXRotation, currentYRotation, currentZRotation);
+        }
+        if (rotationListener == null) {
+            return;
+        }
+
+        if (listenerDelivery == DELIVER_PER_FRAME) {
+            if (!dispatchPending) {
+                dispatchPending = true;
+                ViewCompat.postOnAnimation(rootView, dispatchRunnable);
+            }
+        } else if (listenerDelivery == DELIVER_SAMPLED) {
+            long elapsed = SystemClock.uptimeMillis() - lastDispatchTime;
+            if (elapsed >= listenerSampleInterval) {
+                dispatchRotationChanged();
+            } else if (!dispatchPending) {
+                // Ensures last values of the interval are delivered as well
+                dispatchPending = true;
+                rootView.postDelayed(dispatchRunnable, listenerSampleInterval - elapsed);
+            }
+        } else {
+            dispatchRotationChanged();
+        }
+    }
+
+    private void dispatchRotationChanged() {
+        if (dispatchPending) {
+            dispatchPending = false;
+            rootView.removeCallbacks(dispatchRunnable);
+        }
+
+        if (rotationListener == null) {
+            return;
+        }
+
+        boolean changed = currentXRotation != notifiedXRotation || currentYRotation != notifiedYRotation;
+        boolean zChanged = currentZRotation != notifiedZRotation && rotationListener instanceof RotationZListener;
+        if (changed || zChanged) {
+            notifiedXRotation = currentXRotation;
+            notifiedYRotation = currentYRotation;
+            notifiedZRotation = currentZRotation;
+            lastDispatchTime = SystemClock.uptimeMillis();
+            long start = metrics != null ? System.nanoTime() : 0;
+            if (changed) {
+                rotationListener.onRotationChanged(currentXRotation, currentYRotation);
+            }
+            if (zChanged) {
+                ((RotationZListener) rotationListener).onRotationZChanged(currentZRotation);
+            }
+            if (metrics != null) {
+                metrics.addListenerTime(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Metrics session counts frames by a callback posted on every frame while session is active
+     */
+    private void beginMetricsSession(int type) {
+        if (metrics != null) {
+            metrics.beginSession(type, SystemClock.uptimeMillis());
+            if (!metricsFramePosted) {
+                metricsFramePosted = true;
+                ViewCompat.postOnAnimation(rootView, metricsFrame);
+            }
+        }
+    }
+
+    private void endMetricsSession() {
+        if (metrics != null) {
+            metrics.endSession(SystemClock.uptimeMillis());
+        }
+    }
+
+    private final Runnable metricsFrame = new Runnable() {
+        @Override
+        public void run() {
+            if (rootView == null || !metrics.isSessionActive()) {
+                metricsFramePosted = false;
+                return;
             }
-        });
-        animatorSet.start();
+            metrics.onFrame(SystemClock.uptimeMillis());
+            ViewCompat.postOnAnimation(rootView, this);
+        }
+    };
+
+    private final Runnable dispatchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            dispatchPending = false;
+            dispatchRotationChanged();
+        }
+    };
+
+    private void fitRotation() {
+        velocityTracker.computeCurrentVelocity(1000, maxFlingVelocity);
+        // Axis gesture is locked out of does not fling by cross movements of finger
+        float velocityX = gestureRotatesY() ? velocityTracker.getXVelocity(activePointerId) : 0;
+        float velocityY = gestureRotatesX() ? velocityTracker.getYVelocity(activePointerId) : 0;
+        velocityTracker.clear();
+
+        // Same as handleRotation, y rotation goes reverse while x is in back area
+        float degreeVelocityX = -velocityY * scaleY;
+        float degreeVelocityY = RotationState.isFront(currentXRotation) ? velocityX * scaleX : -velocityX * scaleX;
+        // Twist velocity is not tracked, z only settles to its detent
+        float degreeVelocityZ = 0;
+
+        // Touch only caught the spring without moving, so it goes on with its own velocity and target
+        boolean carried = springCarried;
+        if (carried) {
+            springCarried = false;
+            degreeVelocityX = carriedVelocityX;
+            degreeVelocityY = carriedVelocityY;
+            degreeVelocityZ = carriedVelocityZ;
+        }
+
+        float targetXRotation = currentXRotation, targetYRotation = currentYRotation;
+        if (freeOffAxis) {
+            if (!freeGesture) {
+                // Touch caught a free snap but didn't drag, per axis snap would leave an in-plane angle behind
+                freeGesture = true;
+                orientation.set(currentXRotation, currentYRotation, currentZRotation);
+            }
+            // Free rotation settles by the shortest arc to a side, without fling or spring
+            orientation.snap(shouldRotateZ() ? zDetent : 180);
+            targetXRotation = orientation.getTargetRotationX();
+            targetYRotation = orientation.getTargetRotationY();
+            runFitAnimator(getFreeSnapAnimator());
+        } else if (springSnapper != null) {
+            cancelRunningRotation();
+
+            if (shouldRotateY()) {
+                targetYRotation = carried && !Float.isNaN(carriedTargetY) ? carriedTargetY
+                        : getFitRotation(rootView.getRotationY(), degreeVelocityY, velocityX);
+                springSnapper.start(SpringSnapper.AXIS_Y, rootView.getRotationY(), degreeVelocityY, targetYRotation);
+            }
+
+            if (shouldRotateX()) {
+                targetXRotation = carried && !Float.isNaN(carriedTargetX) ? carriedTargetX
+                        : getFitRotation(rootView.getRotationX(), degreeVelocityX, velocityY);
+                springSnapper.start(SpringSnapper.AXIS_X, rootView.getRotationX(), degreeVelocityX, targetXRotation);
+            }
+
+            if (shouldRotateZ()) {
+                float targetZRotation = carried && !Float.isNaN(carriedTargetZ) ? carriedTargetZ
+                        : getDetentRotation(rootView.getRotation());
+                springSnapper.start(SpringSnapper.AXIS_Z, rootView.getRotation(), degreeVelocityZ, targetZRotation);
+            }
+            startSpring();
+        } else {
+            cancelRunningRotation();
+
+            if (shouldRotateY()) {
+                targetYRotation = startFitAnimator(getFitAnimatorY(), rootView.getRotationY(), degreeVelocityY, velocityX);
+            }
+
+            if (shouldRotateX()) {
+                targetXRotation = startFitAnimator(getFitAnimatorX(), rootView.getRotationX(), degreeVelocityX, velocityY);
+            }
+
+            if (shouldRotateZ()) {
+                ObjectAnimator animator = getFitAnimatorZ();
+                animator.setFloatValues(rootView.getRotation(), getDetentRotation(rootView.getRotation()));
+                animator.setDuration(FIT_ANIM_TIME);
+                animator.setInterpolator(fitInterpolator);
+                runFitAnimator(animator);
+            }
+        }
+
+        beginMetricsSession(RotationMetrics.SESSION_ANIMATION);
+        if (eventListener != null) {
+            eventListener.onSnapStart(targetXRotation, targetYRotation);
+        }
+        if (stream != null) {
+            stream.emitPhase(RotationStream.PHASE_SNAP_START);
+        }
+        touchSnapping = true;
+    }
+
+    /**
+     * Returns rotation view needs to settle down from current rotation with given velocity
+     */
+    private float getFitRotation(float currentRotation, float degreeVelocity, float velocity) {
+        if (flingEnable && Math.abs(velocity) > minFlingVelocity) {
+            float projectedRotation = currentRotation + degreeVelocity * FLING_PROJECTION_TIME;
+            return Math.round(projectedRotation / 180) * 180;
+        }
+        return RotationState.snap(currentRotation);
+    }
+
+    /**
+     * Z rotation doesn't change visible face, it settles to the closest detent
+     */
+    private float getDetentRotation(float currentRotation) {
+        return Math.round(currentRotation / zDetent) * zDetent;
+    }
 
-        // Reset max values to calculate again on touch down
-        maxDistanceX = NULL_INT;
-        maxDistanceY = NULL_INT;
-    }
-
-    private float getRequiredRotation(float currentRotation) {
-        float requiredRotation;
-        if (currentRotation < -270) {
-            requiredRotation = -360;
-        } else if (currentRotation < -90 && currentRotation > -270) {
-            requiredRotation = -180;
-        } else if (currentRotation > -90 && currentRotation < 90) {
-            requiredRotation = 0;
-        } else if (currentRotation > 90 && currentRotation < 270) {
-            requiredRotation = 180;
+    private float startFitAnimator(ObjectAnimator animator, float currentRotation, float degreeVelocity, float velocity) {
+        float requiredRotation = getFitRotation(currentRotation, degreeVelocity, velocity);
+        if (requiredRotation != RotationState.snap(currentRotation)) {
+            /**
+             * DecelerateInterpolator starts twice as fast as its average speed,
+             * so this duration makes animation start with the velocity finger left
+             */
+            long duration = (long) (2000 * Math.abs(requiredRotation - currentRotation) / Math.abs(degreeVelocity));
+            animator.setFloatValues(currentRotation, requiredRotation);
+            animator.setDuration(Math.max(FIT_ANIM_TIME, Math.min(MAX_FLING_ANIM_TIME, duration)));
+            animator.setInterpolator(flingInterpolator);
         } else {
-            requiredRotation = 360;
+            animator.setFloatValues(currentRotation, requiredRotation);
+            animator.setDuration(FIT_ANIM_TIME);
+            animator.setInterpolator(fitInterpolator);
         }
+
+        runFitAnimator(animator);
         return requiredRotation;
     }
 
+    private void runFitAnimator(ValueAnimator animator) {
+        runningFitAnimators++;
+        acquireLayer();
+        animator.start();
+    }
+
+    private ObjectAnimator getFitAnimatorX() {
+        if (fitAnimatorX == null) {
+            fitAnimatorX = createFitAnimator(View.ROTATION_X);
+        }
+        return fitAnimatorX;
+    }
+
+    private ObjectAnimator getFitAnimatorY() {
+        if (fitAnimatorY == null) {
+            fitAnimatorY = createFitAnimator(View.ROTATION_Y);
+        }
+        return fitAnimatorY;
+    }
+
+    private ObjectAnimator getFitAnimatorZ() {
+        if (fitAnimatorZ == null) {
+            fitAnimatorZ = createFitAnimator(View.ROTATION);
+        }
+        return fitAnimatorZ;
+    }
+
+    private ValueAnimator getFreeSnapAnimator() {
+        if (freeSnapAnimator == null) {
+            freeSnapAnimator = ValueAnimator.ofFloat(0, 1);
+            freeSnapAnimator.setDuration(FIT_ANIM_TIME);
+            freeSnapAnimator.setInterpolator(fitInterpolator);
+            freeSnapAnimator.addUpdateListener(freeSnapUpdateListener);
+            freeSnapAnimator.addListener(fitListener);
+        }
+        return freeSnapAnimator;
+    }
+
+    private final ValueAnimator.AnimatorUpdateListener freeSnapUpdateListener =
+            new ValueAnimator.AnimatorUpdateListener() {
+                @Override
+                public void onAnimationUpdate(ValueAnimator animation) {
+                    orientation.interpolate((float) animation.getAnimatedValue());
+                    applyOrientation();
+                }
+            };
+
+    /**
+     * Writes orientation into view, same as touch does with rotation values
+     */
+    private void applyOrientation() {
+        orientation.resolveRotation();
+        currentXRotation = orientation.getRotationX();
+        currentYRotation = orientation.getRotationY();
+        currentZRotation = orientation.getRotationZ();
+        rootView.setRotationX(currentXRotation);
+        rootView.setRotationY(currentYRotation);
+        rootView.setRotation(currentZRotation);
+    }
+
+    private ObjectAnimator createFitAnimator(Property<View, Float> property) {
+        ObjectAnimator animator = ObjectAnimator.ofFloat(rootView, property, 0);
+        animator.addUpdateListener(fitUpdateListener);
+        animator.addListener(fitListener);
+        return animator;
+    }
+
+    private final ValueAnimator.AnimatorUpdateListener fitUpdateListener = new ValueAnimator.AnimatorUpdateListener() {
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            // Fling may pass through the other side, so views need to be swapped
+            updateRotationValues(false);
+            if (shouldSwapViews) {
+                swapViews();
+            }
+        }
+    };
+
+    private final AnimatorListenerAdapter fitListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            super.onAnimationEnd(animation);
+            releaseLayer();
+            if (--runningFitAnimators == 0 && rootView != null && !fitCancelled) {
+                onSnapEnd();
+            }
+        }
+    };
+
+    private void onSnapEnd() {
+        if (freeGesture) {
+            freeOffAxis = false;
+            freeGesture = false;
+        }
+        // Fling may end up further than a full turn, bring it back in range
+        rootView.setRotationX(rotationState.wrap(rootView.getRotationX()));
+        rootView.setRotationY(rotationState.wrap(rootView.getRotationY()));
+        rootView.setRotation(rootView.getRotation() % 360);
+        updateRotationValues(true);
+        endSnapshot();
+        endMetricsSession();
+
+        if (eventListener != null) {
+            eventListener.onSnapEnd(currentXRotation, currentYRotation);
+        }
+        if (stream != null) {
+            stream.emitPhase(RotationStream.PHASE_SNAP_END);
+        }
+        dispatchDetent(DETENT_SNAP);
+        touchSnapping = false;
+    }
+
+    private void startSpring() {
+        if (!springFramePosted) {
+            springFramePosted = true;
+            acquireLayer();
+            lastSpringFrameTime = System.nanoTime();
+            ViewCompat.postOnAnimation(rootView, springFrame);
+        }
+    }
+
+    /**
+     * Stops a running spring where it is, its velocity and target are kept in case touch doesn't move
+     */
+    private void catchSpring() {
+        if (springFramePosted) {
+            springCarried = true;
+            carriedVelocityX = springSnapper.getVelocity(SpringSnapper.AXIS_X);
+            carriedVelocityY = springSnapper.getVelocity(SpringSnapper.AXIS_Y);
+            carriedVelocityZ = springSnapper.getVelocity(SpringSnapper.AXIS_Z);
+            carriedTargetX = getCarriedTarget(SpringSnapper.AXIS_X);
+            carriedTargetY = getCarriedTarget(SpringSnapper.AXIS_Y);
+            carriedTargetZ = getCarriedTarget(SpringSnapper.AXIS_Z);
+            springSnapper.stop();
+            springFramePosted = false;
+            rootView.removeCallbacks(springFrame);
+            releaseLayer();
+        }
+    }
+
+    /**
+     * Axis which was not running has no target to carry, it settles like a new snap
+     */
+    private float getCarriedTarget(int axis) {
+        return springSnapper.isRunning(axis) ? springSnapper.getTarget(axis) : Float.NaN;
+    }
+
+    /**
+     * Steps spring once per frame and writes it into view, stops posting itself once spring settles
+     */
+    private final Runnable springFrame = new Runnable() {
+        @Override
+        public void run() {
+            if (!springFramePosted || rootView == null) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            boolean running = springSnapper.step((now - lastSpringFrameTime) / 1e9f);
+            lastSpringFrameTime = now;
+
+            if (shouldRotateX()) {
+                rootView.setRotationX(springSnapper.getPosition(SpringSnapper.AXIS_X));
+            }
+            if (shouldRotateY()) {
+                rootView.setRotationY(springSnapper.getPosition(SpringSnapper.AXIS_Y));
+            }
+            if (shouldRotateZ()) {
+                rootView.setRotation(springSnapper.getPosition(SpringSnapper.AXIS_Z));
+            }
+            updateRotationValues(false);
+            if (shouldSwapViews) {
+                swapViews();
+            }
+
+            if (running) {
+                ViewCompat.postOnAnimation(rootView, this);
+            } else {
+                springFramePosted = false;
+                releaseLayer();
+                onSnapEnd();
+            }
+        }
+    };
+
     /**
      * Listener to get notified whenever view's rotation is changed
      */
@@ -538,17 +2319,111 @@ public class Rotatable implements View.OnTouchListener {
         void onRotationChanged(float newRotationX, float newRotationY);
     }
 
+    /**
+     * Rotation listener which also gets notified whenever view's z rotation is changed,
+     * give it as {@link Builder#listener(RotationListener)} and it is delivered the same way
+     */
+    public interface RotationZListener extends RotationListener {
+        void onRotationZChanged(float newRotationZ);
+    }
+
+    /**
+     * Maps degrees travelled by user's finger since touch down into degrees view rotates,
+     * see {@link GestureCurves} for the ones provided
+     */
+    public interface GestureCurve {
+        float map(float degrees);
+    }
+
+    /**
+     * Listener to get notified about discrete events of rotation,
+     * so there is no need to follow rotation values to find them out
+     */
+    public interface RotationEventListener {
+        void onGestureStart();
+
+        void onGestureEnd();
+
+        void onSideChanged(@Side int side);
+
+        /**
+         * Called on every face change, while onSideChanged is called only if it is between front and back
+         */
+        void onFaceChanged(int face);
+
+        void onSnapStart(float targetRotationX, float targetRotationY);
+
+        void onSnapEnd(float rotationX, float rotationY);
+
+        /**
+         * Called once for each face crossing, z detent passed by a twist and snap completion,
+         * see {@link Detent}
+         */
+        void onDetent(@Detent int detent);
+    }
+
+    /**
+     * Empty implementation of {@link RotationEventListener}, to override only required ones
+     */
+    public static class RotationEventAdapter implements RotationEventListener {
+        @Override
+        public void onGestureStart() {
+        }
+
+        @Override
+        public void onGestureEnd() {
+        }
+
+        @Override
+        public void onSideChanged(@Side int side) {
+        }
+
+        @Override
+        public void onFaceChanged(int face) {
+        }
+
+        @Override
+        public void onSnapStart(float targetRotationX, float targetRotationY) {
+        }
+
+        @Override
+        public void onSnapEnd(float rotationX, float rotationY) {
+        }
+
+        @Override
+        public void onDetent(@Detent int detent) {
+        }
+    }
+
     public static class Builder {
 
         private View root;
         private RotationListener listener;
+        private RotationEventListener eventListener;
+        private GestureCurve gestureCurve;
+        private int listenerDelivery = DELIVER_EVERY_EVENT;
+        private int swapMode = SWAP_GONE;
+        private long listenerSampleInterval = NULL_INT;
         private int rotation = NULL_INT;
-        private int frontId = NULL_INT;
-        private int backId = NULL_INT;
+        private int[] faceIds;
         private int pivotX = NULL_INT;
         private int pivotY = NULL_INT;
         private float rotationCount = NULL_INT;
         private float rotationDistance = NULL_INT;
+        private boolean fling = false;
+        private boolean hardwareLayer = false;
+        private boolean touchPrediction = false;
+        private float springStiffness = NULL_INT;
+        private float springDampingRatio = NULL_INT;
+        private RotationMetrics metrics;
+        private RotationStream stream;
+        private boolean renderThreadRotation = false;
+        private boolean snapshotMode = false;
+        private boolean axisLock = false;
+        private float zDetent = 90;
+        private boolean freeRotation = false;
+        private boolean hapticFeedback = false;
+        private boolean accessibilityAction = false;
 
         public Builder(View viewToRotate) {
             this.root = viewToRotate;
@@ -562,18 +2437,97 @@ public class Rotatable implements View.OnTouchListener {
             return this;
         }
 
+        /**
+         * Specify how often listener receives rotation values;
+         * {@link #DELIVER_EVERY_EVENT} on every change, {@link #DELIVER_PER_FRAME} at most once per frame
+         * or {@link #DELIVER_SAMPLED} at most once in every {@link #listenerSampleInterval(long)}.
+         * In any case, listener receives final values when a rotation is completed.
+         */
+        public Builder listenerDelivery(@Delivery int delivery) {
+            this.listenerDelivery = delivery;
+            return this;
+        }
+
+        /**
+         * Minimum time in milliseconds between two notifies when delivery is {@link #DELIVER_SAMPLED}
+         */
+        public Builder listenerSampleInterval(long interval) {
+            this.listenerSampleInterval = interval;
+            return this;
+        }
+
+        /**
+         * This listener will receive gesture, side change and snap events
+         */
+        public Builder eventListener(RotationEventListener listener) {
+            this.eventListener = listener;
+            return this;
+        }
+
         /**
          * Declaring sides will provide swapping between them when necessary,
          * if not declared, then rootView will be rotating by itself without any other effect
          */
         public Builder sides(int frontViewId, int backViewId) {
-            this.frontId = frontViewId;
-            this.backId = backViewId;
+            return faces(frontViewId, backViewId);
+        }
+
+        /**
+         * Same as sides but with any number of faces, each half turn shows the next one in given order
+         * and it goes back to the first one after the last. Faces can be view stubs,
+         * then they are inflated only when they are about to be shown.
+         * <p>
+         * Lay out even indexed faces as front and odd ones as back, like sides. With an odd count
+         * a face comes up on the other side every other time around, then it is mirrored back by scale
+         */
+        public Builder faces(int... faceViewIds) {
+            this.faceIds = faceViewIds;
             return this;
         }
 
         /**
-         * Specify an axis or both axises to rotate around
+         * Changes how hidden faces are hidden, {@link #SWAP_GONE} by default. {@link #SWAP_INVISIBLE}
+         * and {@link #SWAP_ALPHA} keep faces in layout, so a flip doesn't cause a layout pass,
+         * but be aware that a face hidden by alpha still receives touches
+         */
+        public Builder swapMode(@SwapMode int mode) {
+            this.swapMode = mode;
+            return this;
+        }
+
+        /**
+         * When direction is both, each gesture rotates only around the axis it starts along
+         */
+        public Builder axisLock(boolean enable) {
+            this.axisLock = enable;
+            return this;
+        }
+
+        /**
+         * When direction has both x and y, drags turn view around screen axes however it is turned,
+         * like a ball under finger, instead of adding up rotation x and y one by one.
+         * It snaps back by the shortest way to the side it shows, fling and spring are not applied
+         */
+        public Builder freeRotation(boolean enable) {
+            this.freeRotation = enable;
+            return this;
+        }
+
+        /**
+         * Degrees z rotation settles to a multiple of once a twist ends, 90 by default
+         */
+        public Builder zDetent(float degrees) {
+            if (degrees <= 0) {
+                throw new IllegalArgumentException("Z detent must be positive!");
+            }
+
+            this.zDetent = degrees;
+            return this;
+        }
+
+        /**
+         * Specify an axis or both axises to rotate around, axes can be combined such as
+         * ROTATE_X | ROTATE_Z. Z axis is rotated by twisting two fingers
          */
         public Builder direction(@Direction int rotation) {
             this.rotation = rotation;
@@ -608,6 +2562,113 @@ public class Rotatable implements View.OnTouchListener {
             return this;
         }
 
+        /**
+         * When enabled, view keeps rotating with the velocity user's finger left it
+         * and settles down to the closest side in that direction
+         */
+        public Builder fling(boolean enable) {
+            this.fling = enable;
+            return this;
+        }
+
+        /**
+         * When enabled, rootView is drawn into a hardware layer while it is being rotated
+         * by touch or animation, so its content doesn't need to be redrawn on every frame
+         */
+        public Builder hardwareLayer(boolean enable) {
+            this.hardwareLayer = enable;
+            return this;
+        }
+
+        /**
+         * When enabled, view is rotated as far as user's finger is expected to move
+         * until next frame is shown, so it doesn't fall a frame behind the finger
+         */
+        public Builder touchPrediction(boolean enable) {
+            this.touchPrediction = enable;
+            return this;
+        }
+
+        /**
+         * Snaps view to its side by a spring instead of a fixed time animation, so it continues with
+         * the velocity it is released and stops as soon as it settles. Stiffness around 1500 with
+         * damping ratio 0.75 is a good start, damping ratio 1 settles without any bounce.
+         */
+        public Builder spring(float stiffness, float dampingRatio) {
+            if (stiffness <= 0 || dampingRatio <= 0) {
+                throw new IllegalArgumentException("Spring stiffness and damping ratio must be positive!");
+            }
+
+            this.springStiffness = stiffness;
+            this.springDampingRatio = dampingRatio;
+            return this;
+        }
+
+        /**
+         * Runs rotate and takeAttention animations by ViewPropertyAnimator, which is driven by
+         * RenderThread where it is possible, so they don't stutter while main thread is busy.
+         * Giving a listener to rotate keeps that animation on main thread
+         */
+        public Builder renderThreadRotation(boolean enable) {
+            this.renderThreadRotation = enable;
+            return this;
+        }
+
+        /**
+         * When enabled, faces are drawn into bitmaps as a drag or rotate starts and those bitmaps
+         * are rotated instead of live faces until rotation settles. Useful for complex faces
+         * which are expensive to draw on each frame, bitmaps are reused from {@link SnapshotPool}.
+         * Faces need to be laid out to be captured, so {@link #SWAP_GONE} is replaced by {@link #SWAP_INVISIBLE}
+         */
+        public Builder snapshot(boolean enable) {
+            this.snapshotMode = enable;
+            return this;
+        }
+
+        /**
+         * Records frame timing of each gesture and animation into given metrics object,
+         * nothing is measured unless metrics is given
+         */
+        public Builder metrics(RotationMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * When enabled, a face crossing or a z detent passed while user rotates the view
+         * gives haptic feedback once, up to user's system setting
+         */
+        public Builder hapticFeedback(boolean enable) {
+            this.hapticFeedback = enable;
+            return this;
+        }
+
+        /**
+         * When enabled, a flip action is offered to accessibility services, which calls
+         * {@link Rotatable#rotateOnce()}. Note that this replaces accessibility delegate of the view
+         */
+        public Builder accessibilityAction(boolean enable) {
+            this.accessibilityAction = enable;
+            return this;
+        }
+
+        /**
+         * Publishes rotation, face and gesture phase to subscribers of given stream, in addition to listeners.
+         * A stream is for one rotatable, give each rotatable its own
+         */
+        public Builder stream(RotationStream stream) {
+            this.stream = stream;
+            return this;
+        }
+
+        /**
+         * Changes how touch distance turns into rotation, rotation follows finger linearly by default
+         */
+        public Builder gestureCurve(GestureCurve curve) {
+            this.gestureCurve = curve;
+            return this;
+        }
+
         /**
          * Consider not to change pivot values because view may out of its bounders and get invisible.
          */
@@ -637,13 +2698,48 @@ public class Rotatable implements View.OnTouchListener {
             if (rotation == NULL_INT || !isRotationValid(rotation)) {
                 throw new IllegalArgumentException("You must specify a direction!");
             }
+            if (listenerDelivery == DELIVER_SAMPLED && listenerSampleInterval <= 0) {
+                throw new IllegalArgumentException("You must specify a sample interval for sampled delivery!");
+            }
+            if (swapMode != SWAP_GONE && swapMode != SWAP_INVISIBLE && swapMode != SWAP_ALPHA) {
+                throw new IllegalArgumentException("You must specify a valid swap mode!");
+            }
+            if (faceIds != null && faceIds.length < 2) {
+                throw new IllegalArgumentException("You must specify at least two faces!");
+            }
+            if (freeRotation && faceIds != null && faceIds.length > 2) {
+                throw new IllegalArgumentException("Free rotation can only be used with two faces!");
+            }
             return new Rotatable(this);
         }
 
+        /**
+         * Stream and metrics follow a single rotatable, so a builder with any of them
+         * cannot be used to build many, such as by {@link RotatablePool}
+         */
+        boolean isShareable() {
+            return stream == null && metrics == null;
+        }
+
+        /**
+         * Builds with same configuration for another view, used by {@link RotatablePool}
+         */
+        Rotatable build(View viewToRotate) {
+            this.root = viewToRotate;
+            return build();
+        }
+
     }
 
-    private static boolean isRotationValid(int value) {
-        return value == ROTATE_X || value == ROTATE_Y || value == ROTATE_BOTH;
+    static boolean isRotationValid(int value) {
+        return value > 0 && (value & ~(ROTATE_X | ROTATE_Y | ROTATE_Z)) == 0;
+    }
+
+    /**
+     * Returns true if given direction rotates around any of given axes
+     */
+    static boolean hasAxis(int direction, int axis) {
+        return (direction & axis) != 0;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,336 @@
+package com.yayandroid.rotatable;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.content.res.Resources;
+import android.graphics.Camera;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Matrix;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.support.v4.view.animation.FastOutSlowInInterpolator;
+import android.view.MotionEvent;
+
+/**
+ * Draw-only counterpart of {@link Rotatable}, for many small flipping tiles such as a game board
+ * where a view for each of them would cost too much. Faces are projected by {@link Camera}
+ * in a single draw call, so a whole grid can be drawn by one view without any layout per tile.
+ * <p>
+ * Host view draws each drawable in its onDraw, passes its touch events to
+ * {@link #onTouchEvent(MotionEvent)} and returns true from verifyDrawable for them,
+ * so drawables can invalidate it while they rotate. Faces can be any drawable,
+ * wrap bitmaps in BitmapDrawable. Unlike views, back face is not drawn mirrored.
+ */
+public class RotatableDrawable extends Drawable {
+
+    private static final int FIT_ANIM_TIME = 300;
+
+    /**
+     * Drawables are only drawn on main thread, so all of them share one camera
+     */
+    private static final Camera camera = new Camera();
+    private static final Matrix matrix = new Matrix();
+
+    /**
+     * Camera distance in inches, 8 is the default of both views and camera
+     */
+    private static final float DEFAULT_CAMERA_LOCATION = -8;
+
+    private final Drawable frontFace, backFace;
+
+    private float cameraLocation = DEFAULT_CAMERA_LOCATION;
+
+    private int direction = Rotatable.ROTATE_BOTH;
+    private float rotationCount = 1;
+    private Rotatable.RotationListener rotationListener;
+    private Rotatable.RotationEventListener eventListener;
+
+    private float rotationX, rotationY;
+    private final RotationState rotationState = new RotationState(2);
+
+    private boolean tracking = false;
+    private float oldX, oldY;
+
+    private ValueAnimator animator;
+    private float fromX, fromY, toX, toY;
+    private boolean snapping = false;
+
+    public RotatableDrawable(Drawable frontFace, Drawable backFace) {
+        this.frontFace = frontFace;
+        this.backFace = backFace;
+    }
+
+    /**
+     * Same as {@link android.view.View#setCameraDistance(float)}, distance is given in pixels
+     * and it is the same perspective as a view with that distance
+     */
+    public void setCameraDistance(float distance) {
+        float dpi = Resources.getSystem().getDisplayMetrics().densityDpi;
+        cameraLocation = -Math.abs(distance) / dpi;
+        invalidateSelf();
+    }
+
+    /**
+     * Same as {@link Rotatable.Builder#direction(int)}, except that z axis is ignored
+     */
+    public void setDirection(@Rotatable.Direction int direction) {
+        this.direction = direction;
+    }
+
+    /**
+     * Half turns made by dragging as far as width or height of the drawable, 1 by default
+     */
+    public void setRotationCount(float count) {
+        this.rotationCount = count;
+    }
+
+    public void setRotationListener(Rotatable.RotationListener listener) {
+        this.rotationListener = listener;
+    }
+
+    /**
+     * Receives gesture, side change and snap events, face is 0 for front and 1 for back
+     */
+    public void setEventListener(Rotatable.RotationEventListener listener) {
+        this.eventListener = listener;
+    }
+
+    public void setRotation(float rotationX, float rotationY) {
+        cancelAnimation();
+        applyRotation(rotationX, rotationY);
+    }
+
+    public float getRotationX() {
+        return rotationX;
+    }
+
+    public float getRotationY() {
+        return rotationY;
+    }
+
+    public boolean isFront() {
+        return rotationState.isFront();
+    }
+
+    /**
+     * Same as {@link Rotatable#rotate(int, float, int)}, animates from current rotation to given degree
+     */
+    public void rotate(@Rotatable.Direction int direction, float degree, int duration) {
+        float targetX = Rotatable.hasAxis(direction, Rotatable.ROTATE_X) ? degree : rotationX;
+        float targetY = Rotatable.hasAxis(direction, Rotatable.ROTATE_Y) ? degree : rotationY;
+        animateTo(targetX, targetY, duration, false);
+    }
+
+    public void rotateOnce() {
+        if (Rotatable.hasAxis(direction, Rotatable.ROTATE_Y)) {
+            rotate(Rotatable.ROTATE_Y, rotationY + 180, Rotatable.DEFAULT_ROTATE_ANIM_TIME);
+        } else {
+            rotate(Rotatable.ROTATE_X, rotationX + 180, Rotatable.DEFAULT_ROTATE_ANIM_TIME);
+        }
+    }
+
+    /**
+     * Returns true if event is consumed, which is the case for a gesture started within bounds
+     */
+    public boolean onTouchEvent(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                if (!getBounds().contains((int) event.getX(), (int) event.getY())) {
+                    return false;
+                }
+                cancelAnimation();
+                tracking = true;
+                oldX = event.getX();
+                oldY = event.getY();
+                if (eventListener != null) {
+                    eventListener.onGestureStart();
+                }
+                return true;
+
+            case MotionEvent.ACTION_MOVE:
+                if (!tracking) {
+                    return false;
+                }
+                handleMove(event.getX(), event.getY());
+                return true;
+
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                if (!tracking) {
+                    return false;
+                }
+                tracking = false;
+                if (eventListener != null) {
+                    eventListener.onGestureEnd();
+                }
+                animateTo(RotationState.snap(rotationX), RotationState.snap(rotationY), FIT_ANIM_TIME, true);
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Same as {@link Rotatable}, vertical drag rotates around x and horizontal drag around y,
+     * which goes the other way while it is upside down
+     */
+    private void handleMove(float x, float y) {
+        Rect bounds = getBounds();
+        float newX = rotationX, newY = rotationY;
+
+        if (Rotatable.hasAxis(direction, Rotatable.ROTATE_X)) {
+            float scale = rotationCount * 180 / Math.max(1, bounds.height());
+            newX = (rotationX + (oldY - y) * scale) % 360;
+        }
+
+        if (Rotatable.hasAxis(direction, Rotatable.ROTATE_Y)) {
+            float scale = rotationCount * 180 / Math.max(1, bounds.width());
+            float delta = (x - oldX) * scale;
+            newY = (rotationY + (RotationState.isFront(newX) ? delta : -delta)) % 360;
+        }
+
+        oldX = x;
+        oldY = y;
+        applyRotation(newX, newY);
+    }
+
+    private void animateTo(float targetX, float targetY, int duration, boolean snap) {
+        cancelAnimation();
+        if (animator == null) {
+            animator = ValueAnimator.ofFloat(0, 1);
+            animator.setInterpolator(new FastOutSlowInInterpolator());
+            animator.addUpdateListener(updateListener);
+            animator.addListener(snapListener);
+        }
+
+        fromX = rotationX;
+        fromY = rotationY;
+        toX = targetX;
+        toY = targetY;
+        snapping = snap;
+        if (snap && eventListener != null) {
+            eventListener.onSnapStart(targetX, targetY);
+        }
+
+        animator.setDuration(duration);
+        animator.start();
+    }
+
+    private void cancelAnimation() {
+        if (animator != null && animator.isStarted()) {
+            // Snap end is not reported for a cancelled snap
+            snapping = false;
+            animator.cancel();
+        }
+    }
+
+    private final ValueAnimator.AnimatorUpdateListener updateListener = new ValueAnimator.AnimatorUpdateListener() {
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            float fraction = (float) animation.getAnimatedValue();
+            applyRotation(fromX + (toX - fromX) * fraction, fromY + (toY - fromY) * fraction);
+        }
+    };
+
+    private final AnimatorListenerAdapter snapListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            super.onAnimationEnd(animation);
+            if (snapping) {
+                snapping = false;
+                rotationX %= 360;
+                rotationY %= 360;
+                if (eventListener != null) {
+                    eventListener.onSnapEnd(rotationX, rotationY);
+                    eventListener.onDetent(Rotatable.DETENT_SNAP);
+                }
+            }
+        }
+    };
+
+    private void applyRotation(float rotationX, float rotationY) {
+        this.rotationX = rotationX;
+        this.rotationY = rotationY;
+
+        if (rotationState.update(rotationX, rotationY) && eventListener != null) {
+            int face = rotationState.getFace();
+            eventListener.onSideChanged(face == 0 ? Rotatable.FRONT_VIEW : Rotatable.BACK_VIEW);
+            eventListener.onFaceChanged(face);
+            eventListener.onDetent(Rotatable.DETENT_FACE);
+        }
+        if (rotationListener != null) {
+            rotationListener.onRotationChanged(rotationX, rotationY);
+        }
+        invalidateSelf();
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        Rect bounds = getBounds();
+        float centerX = bounds.exactCenterX();
+        float centerY = bounds.exactCenterY();
+
+        // Camera is shared, each drawable puts it at its own distance
+        camera.setLocation(0, 0, cameraLocation);
+        camera.save();
+        camera.rotateX(rotationX);
+        camera.rotateY(rotationY);
+        camera.getMatrix(matrix);
+        camera.restore();
+
+        // Back face is turned around on each axis it is seen from behind, so it is not drawn mirrored
+        Drawable face = frontFace;
+        if (!rotationState.isFront()) {
+            face = backFace;
+            boolean flipX = (rotationState.getXHalfTurn() & 1) != 0;
+            boolean flipY = (rotationState.getYHalfTurn() & 1) != 0;
+            matrix.preScale(flipY ? -1 : 1, flipX ? -1 : 1);
+        }
+        matrix.preTranslate(-centerX, -centerY);
+        matrix.postTranslate(centerX, centerY);
+
+        int count = canvas.save();
+        canvas.concat(matrix);
+        face.draw(canvas);
+        canvas.restoreToCount(count);
+    }
+
+    @Override
+    protected void onBoundsChange(Rect bounds) {
+        frontFace.setBounds(bounds);
+        backFace.setBounds(bounds);
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return Math.max(frontFace.getIntrinsicWidth(), backFace.getIntrinsicWidth());
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return Math.max(frontFace.getIntrinsicHeight(), backFace.getIntrinsicHeight());
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        frontFace.setAlpha(alpha);
+        backFace.setAlpha(alpha);
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        frontFace.setColorFilter(colorFilter);
+        backFace.setColorFilter(colorFilter);
+    }
+
+    /**
+     * Rotated faces leave part of bounds uncovered
+     */
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+}
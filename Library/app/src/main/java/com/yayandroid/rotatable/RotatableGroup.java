@@ -0,0 +1,382 @@
+package com.yayandroid.rotatable;
+
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.os.Build;
+import android.support.v4.view.animation.FastOutSlowInInterpolator;
+import android.view.Choreographer;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Coordinates many rotatable objects under one parent, such as tiles of a grid.
+ * Group is the only touch listener, it finds the rotatable under user's finger
+ * and passes the gesture to it. All group flips are driven from one frame callback
+ * instead of an animator per rotatable, and number of flips running at the same time
+ * can be limited so frame cost doesn't grow with number of tiles.
+ * <p>
+ * Only flips started by group share its frame callback. Snaps and springs after a gesture,
+ * and {@link Rotatable#rotate(int, float)} called on a member, still run their own animators.
+ * Those stop a group flip running on the same member, just like they stop each other.
+ * <p>
+ * Note that parent only receives touch events which are not consumed by its children,
+ * so rotatable views should not be clickable themselves.
+ */
+public class RotatableGroup implements View.OnTouchListener {
+
+    private static final int STATE_IDLE = 0;
+    private static final int STATE_PENDING = 1;
+    private static final int STATE_ACTIVE = 2;
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private final ViewGroup parent;
+    private final ArrayList<Rotatable> rotatables = new ArrayList<>();
+    private final TimeInterpolator interpolator = new FastOutSlowInInterpolator();
+    private final int[] location = new int[2];
+
+    private Rotatable touchTarget;
+    private Object frameCallback;
+    private boolean frameScheduled = false;
+
+    private int maxConcurrentFlips = Integer.MAX_VALUE;
+    private long flipDuration = Rotatable.DEFAULT_ROTATE_ANIM_TIME * NANOS_PER_MILLI;
+
+    /**
+     * Flip state of each rotatable, kept in same order with rotatables list
+     */
+    private int[] flipStates = new int[0];
+    private int[] flipAxes = new int[0];
+    private long[] flipTimes = new long[0];
+    private float[] flipFrom = new float[0];
+
+    public RotatableGroup(ViewGroup parent) {
+        this.parent = parent;
+        parent.setOnTouchListener(this);
+    }
+
+    /**
+     * Adds rotatable into group, its own touch listener is removed
+     * because from now on group will be passing gestures to it
+     */
+    public void add(Rotatable rotatable) {
+        if (rotatables.contains(rotatable)) {
+            return;
+        }
+
+        int size = rotatables.size();
+        if (flipStates.length == size) {
+            int capacity = Math.max(8, size * 2);
+            flipStates = Arrays.copyOf(flipStates, capacity);
+            flipAxes = Arrays.copyOf(flipAxes, capacity);
+            flipTimes = Arrays.copyOf(flipTimes, capacity);
+            flipFrom = Arrays.copyOf(flipFrom, capacity);
+        }
+        flipStates[size] = STATE_IDLE;
+
+        rotatables.add(rotatable);
+        rotatable.setGroup(this);
+    }
+
+    /**
+     * Removes rotatable from group and gives its touch listener back
+     */
+    public void remove(Rotatable rotatable) {
+        int index = rotatables.indexOf(rotatable);
+        if (index == -1) {
+            return;
+        }
+
+        if (flipStates[index] == STATE_ACTIVE) {
+            rotatable.onExternalRotationEnd();
+        }
+        if (touchTarget == rotatable) {
+            touchTarget = null;
+        }
+
+        int moved = rotatables.size() - index - 1;
+        System.arraycopy(flipStates, index + 1, flipStates, index, moved);
+        System.arraycopy(flipAxes, index + 1, flipAxes, index, moved);
+        System.arraycopy(flipTimes, index + 1, flipTimes, index, moved);
+        System.arraycopy(flipFrom, index + 1, flipFrom, index, moved);
+
+        rotatables.remove(index);
+        rotatable.setGroup(null);
+    }
+
+    /**
+     * Rotatable stays in group while it is unbound, such as in a {@link RotatablePool},
+     * but its flip and gesture are ended while its view is still there
+     */
+    void onUnbind(Rotatable rotatable) {
+        int index = rotatables.indexOf(rotatable);
+        if (index == -1) {
+            return;
+        }
+
+        if (flipStates[index] == STATE_ACTIVE) {
+            rotatable.onExternalRotationEnd();
+        }
+        flipStates[index] = STATE_IDLE;
+        if (touchTarget == rotatable) {
+            touchTarget = null;
+        }
+    }
+
+    /**
+     * Rotatable started another rotation over its flip, flip is dropped without settling
+     * because the new rotation continues from where it is
+     */
+    void onFlipCancelled(Rotatable rotatable) {
+        int index = rotatables.indexOf(rotatable);
+        if (index != -1) {
+            flipStates[index] = STATE_IDLE;
+        }
+    }
+
+    /**
+     * Removes all rotatables and detaches group from its parent
+     */
+    public void release() {
+        cancelFlips();
+        for (int i = rotatables.size() - 1; i >= 0; i--) {
+            remove(rotatables.get(i));
+        }
+        parent.setOnTouchListener(null);
+    }
+
+    /**
+     * Limits how many rotatables can flip at the same time, rest of them wait in order
+     */
+    public void setMaxConcurrentFlips(int maxConcurrentFlips) {
+        if (maxConcurrentFlips < 1) {
+            throw new IllegalArgumentException("At least one flip must be allowed at a time!");
+        }
+        this.maxConcurrentFlips = maxConcurrentFlips;
+    }
+
+    public void setFlipDuration(int duration) {
+        this.flipDuration = duration * NANOS_PER_MILLI;
+    }
+
+    /**
+     * Flips given rotatable once around in its own direction
+     */
+    public void flip(Rotatable rotatable) {
+        flip(rotatable, 0);
+    }
+
+    public void flip(Rotatable rotatable, long delay) {
+        int index = rotatables.indexOf(rotatable);
+        if (index == -1) {
+            throw new IllegalArgumentException("Given rotatable is not a member of this group!");
+        }
+        scheduleFlip(index, System.nanoTime() + delay * NANOS_PER_MILLI);
+        scheduleFrame();
+    }
+
+    /**
+     * Flips all rotatables at once, or in a cascade with {@link #flipAll(long)}
+     */
+    public void flipAll() {
+        flipAll(0);
+    }
+
+    /**
+     * Each rotatable starts flipping given milliseconds after the previous one
+     */
+    public void flipAll(long staggerDelay) {
+        long now = System.nanoTime();
+        for (int i = 0, size = rotatables.size(); i < size; i++) {
+            scheduleFlip(i, now + i * staggerDelay * NANOS_PER_MILLI);
+        }
+        scheduleFrame();
+    }
+
+    /**
+     * Stops all flips, rotatables settle down where they are
+     */
+    public void cancelFlips() {
+        for (int i = 0, size = rotatables.size(); i < size; i++) {
+            if (flipStates[i] == STATE_ACTIVE) {
+                rotatables.get(i).onExternalRotationEnd();
+            }
+            flipStates[i] = STATE_IDLE;
+        }
+    }
+
+    @Override
+    public boolean onTouch(View v, MotionEvent event) {
+        int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            touchTarget = findRotatableUnder(event.getRawX(), event.getRawY());
+            if (touchTarget != null) {
+                // User wins over any group flip on this rotatable
+                int index = rotatables.indexOf(touchTarget);
+                if (flipStates[index] == STATE_ACTIVE) {
+                    touchTarget.onExternalRotationEnd();
+                }
+                flipStates[index] = STATE_IDLE;
+            }
+        }
+
+        if (touchTarget == null) {
+            return false;
+        }
+
+        boolean handled = touchTarget.onTouch(touchTarget.getView(), event);
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            touchTarget = null;
+        }
+        return handled;
+    }
+
+    private Rotatable findRotatableUnder(float rawX, float rawY) {
+        for (int i = rotatables.size() - 1; i >= 0; i--) {
+            Rotatable rotatable = rotatables.get(i);
+            View view = rotatable.getView();
+            if (view == null || !rotatable.isTouchEnable() || !view.isShown()) {
+                continue;
+            }
+
+            view.getLocationOnScreen(location);
+            if (rawX >= location[0] && rawX < location[0] + view.getWidth()
+                    && rawY >= location[1] && rawY < location[1] + view.getHeight()) {
+                return rotatable;
+            }
+        }
+        return null;
+    }
+
+    private void scheduleFlip(int index, long startTime) {
+        if (flipStates[index] == STATE_ACTIVE) {
+            // Already flipping, let it complete
+            return;
+        }
+        flipStates[index] = STATE_PENDING;
+        flipTimes[index] = startTime;
+    }
+
+    private void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+
+        int activeCount = 0;
+        boolean hasPending = false;
+        for (int i = 0, size = rotatables.size(); i < size; i++) {
+            if (flipStates[i] == STATE_ACTIVE) {
+                if (stepFlip(i, frameTimeNanos)) {
+                    activeCount++;
+                } else {
+                    flipStates[i] = STATE_IDLE;
+                }
+            }
+        }
+
+        for (int i = 0, size = rotatables.size(); i < size; i++) {
+            if (flipStates[i] == STATE_PENDING) {
+                if (rotatables.get(i).getView() == null) {
+                    // Unbound while waiting, there is nothing to flip
+                    flipStates[i] = STATE_IDLE;
+                } else if (activeCount < maxConcurrentFlips && frameTimeNanos >= flipTimes[i]) {
+                    startFlip(i, frameTimeNanos);
+                    activeCount++;
+                } else {
+                    hasPending = true;
+                }
+            }
+        }
+
+        if (activeCount > 0 || hasPending) {
+            scheduleFrame();
+        }
+    }
+
+    private void startFlip(int index, long frameTimeNanos) {
+        Rotatable rotatable = rotatables.get(index);
+        // Same axis as Rotatable.rotateOnce() picks
+        int direction = rotatable.getDirection();
+        int axis;
+        float from;
+        if (Rotatable.hasAxis(direction, Rotatable.ROTATE_Y)) {
+            axis = Rotatable.ROTATE_Y;
+            from = rotatable.getCurrentYRotation();
+        } else if (Rotatable.hasAxis(direction, Rotatable.ROTATE_X)) {
+            axis = Rotatable.ROTATE_X;
+            from = rotatable.getCurrentXRotation();
+        } else {
+            axis = Rotatable.ROTATE_Z;
+            from = rotatable.getCurrentZRotation();
+        }
+
+        flipStates[index] = STATE_ACTIVE;
+        flipAxes[index] = axis;
+        flipTimes[index] = frameTimeNanos;
+        flipFrom[index] = from;
+        rotatable.onExternalRotationStart();
+    }
+
+    /**
+     * Returns false when flip is completed
+     */
+    private boolean stepFlip(int index, long frameTimeNanos) {
+        Rotatable rotatable = rotatables.get(index);
+        float fraction = Math.min(1f, (float) (frameTimeNanos - flipTimes[index]) / flipDuration);
+        float value = flipFrom[index] + 180 * interpolator.getInterpolation(fraction);
+
+        if (flipAxes[index] == Rotatable.ROTATE_X) {
+            rotatable.applyRotation(value, rotatable.getCurrentYRotation());
+        } else if (flipAxes[index] == Rotatable.ROTATE_Y) {
+            rotatable.applyRotation(rotatable.getCurrentXRotation(), value);
+        } else {
+            rotatable.applyRotation(rotatable.getCurrentXRotation(), rotatable.getCurrentYRotation(), value);
+        }
+
+        if (flipStates[index] != STATE_ACTIVE) {
+            // Listener started another rotation on this frame, which already took over
+            return false;
+        }
+        if (fraction >= 1f) {
+            rotatable.onExternalRotationEnd();
+            return false;
+        }
+        return true;
+    }
+
+    private void scheduleFrame() {
+        if (frameScheduled) {
+            return;
+        }
+        frameScheduled = true;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            if (frameCallback == null) {
+                frameCallback = new GroupFrameCallback();
+            }
+            Choreographer.getInstance().postFrameCallback((Choreographer.FrameCallback) frameCallback);
+        } else {
+            parent.postDelayed(frameRunnable, ValueAnimator.getFrameDelay());
+        }
+    }
+
+    private final Runnable frameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            doFrame(System.nanoTime());
+        }
+    };
+
+    /**
+     * Kept apart from group, because Choreographer is not available before Jelly Bean
+     */
+    private class GroupFrameCallback implements Choreographer.FrameCallback {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            RotatableGroup.this.doFrame(frameTimeNanos);
+        }
+    }
+
+}
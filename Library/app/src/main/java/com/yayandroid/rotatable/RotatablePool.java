@@ -0,0 +1,67 @@
+package com.yayandroid.rotatable;
+
+import android.view.View;
+
+/**
+ * Keeps unbound rotatable objects to reuse them for recycled views,
+ * instead of building a new one every time a view is bound in a list.
+ * <p>
+ * Given builder is used as a template, each obtained rotatable is bound to the view
+ * passed into {@link #obtain(View)} but has the same configuration otherwise.
+ * Stream and metrics belong to a single rotatable, so builder cannot have any of them.
+ */
+public class RotatablePool {
+
+    private final Rotatable.Builder builder;
+    private final Rotatable[] pool;
+    private int size = 0;
+
+    public RotatablePool(Rotatable.Builder builder, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be positive!");
+        }
+        if (!builder.isShareable()) {
+            throw new IllegalArgumentException("Pooled rotatables cannot share a stream or metrics!");
+        }
+        this.builder = builder;
+        this.pool = new Rotatable[maxSize];
+    }
+
+    /**
+     * Returns a rotatable bound to given view, reused from pool if there is any
+     */
+    public Rotatable obtain(View viewToRotate) {
+        if (size > 0) {
+            Rotatable rotatable = pool[--size];
+            pool[size] = null;
+            rotatable.bind(viewToRotate);
+            return rotatable;
+        }
+        return builder.build(viewToRotate);
+    }
+
+    /**
+     * Unbinds given rotatable and keeps it for next {@link #obtain(View)} call,
+     * if pool is already full then rotatable gets dropped
+     */
+    public void recycle(Rotatable rotatable) {
+        if (size < pool.length) {
+            rotatable.unbind();
+            pool[size++] = rotatable;
+        } else {
+            rotatable.drop();
+        }
+    }
+
+    /**
+     * Drops all pooled rotatable objects
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            pool[i].drop();
+            pool[i] = null;
+        }
+        size = 0;
+    }
+
+}
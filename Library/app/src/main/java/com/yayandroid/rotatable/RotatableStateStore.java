@@ -0,0 +1,103 @@
+package com.yayandroid.rotatable;
+
+import java.util.Arrays;
+
+/**
+ * Remembers rotation of rotatable views by their adapter positions,
+ * so flipped cards come back as they were when they are bound again.
+ * <p>
+ * Values are kept in primitive arrays indexed by position, so saving and restoring
+ * do not allocate unless a position beyond current capacity is saved.
+ * Positions are not shifted on item insertions or removals, call {@link #clear()}
+ * or {@link #remove(int)} accordingly when data set changes.
+ */
+public class RotatableStateStore {
+
+    private static final int NOT_SAVED = -1;
+
+    private int[] faces;
+    private float[] rotationsX;
+    private float[] rotationsY;
+    private float[] rotationsZ;
+
+    public RotatableStateStore() {
+        this(16);
+    }
+
+    public RotatableStateStore(int initialCapacity) {
+        faces = new int[initialCapacity];
+        Arrays.fill(faces, NOT_SAVED);
+        rotationsX = new float[initialCapacity];
+        rotationsY = new float[initialCapacity];
+        rotationsZ = new float[initialCapacity];
+    }
+
+    /**
+     * Call this before rotatable is unbound from its view, such as on view recycled.
+     * Negative positions are ignored, a recycled holder may no longer have one, such as NO_POSITION
+     */
+    public void save(int position, Rotatable rotatable) {
+        if (position < 0) {
+            return;
+        }
+        if (position >= faces.length) {
+            int capacity = Math.max(position + 1, faces.length * 2);
+            int oldCapacity = faces.length;
+            faces = Arrays.copyOf(faces, capacity);
+            Arrays.fill(faces, oldCapacity, capacity, NOT_SAVED);
+            rotationsX = Arrays.copyOf(rotationsX, capacity);
+            rotationsY = Arrays.copyOf(rotationsY, capacity);
+            rotationsZ = Arrays.copyOf(rotationsZ, capacity);
+        }
+
+        faces[position] = rotatable.getCurrentFace();
+        rotationsX[position] = rotatable.getCurrentXRotation();
+        rotationsY[position] = rotatable.getCurrentYRotation();
+        rotationsZ[position] = rotatable.getCurrentZRotation();
+    }
+
+    /**
+     * Call this after rotatable is bound to view of given position,
+     * if there is nothing saved for position then rotatable is reset to front.
+     * Saved rotation is kept within a face period, so it brings back the same face of any face count
+     */
+    public void restore(int position, Rotatable rotatable) {
+        if (isSaved(position)) {
+            rotatable.setRotation(rotationsX[position], rotationsY[position], rotationsZ[position]);
+        } else {
+            rotatable.setRotation(0, 0, 0);
+        }
+    }
+
+    public boolean isSaved(int position) {
+        return position >= 0 && position < faces.length && faces[position] != NOT_SAVED;
+    }
+
+    /**
+     * Returns saved side of given position as {@link Rotatable.Side},
+     * front if nothing is saved for it
+     */
+    @Rotatable.Side
+    public int getSide(int position) {
+        return getFace(position) == 0 ? Rotatable.FRONT_VIEW : Rotatable.BACK_VIEW;
+    }
+
+    /**
+     * Returns saved face index of given position, as {@link Rotatable#getCurrentFace()},
+     * first face if nothing is saved for it
+     */
+    public int getFace(int position) {
+        return isSaved(position) ? faces[position] : 0;
+    }
+
+    public void remove(int position) {
+        if (position >= 0 && position < faces.length) {
+            faces[position] = NOT_SAVED;
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(faces, NOT_SAVED);
+    }
+
+}
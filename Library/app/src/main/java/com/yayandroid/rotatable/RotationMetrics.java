@@ -0,0 +1,209 @@
+package com.yayandroid.rotatable;
+
+import java.io.PrintWriter;
+
+/**
+ * Records frame timing of each gesture and animation of a rotatable, so it is possible to tell
+ * whether dropped frames during a rotation come from rotatable or from somewhere else.
+ * <p>
+ * Records are kept in preallocated ring buffers, so recording doesn't allocate and
+ * only the latest records up to capacity are kept. Each rotatable needs its own metrics object,
+ * pass it into {@link Rotatable.Builder#metrics(RotationMetrics)}. Times are in milliseconds
+ * except listener time which is in nanoseconds.
+ */
+public class RotationMetrics {
+
+    public static final int SESSION_GESTURE = 0;
+    public static final int SESSION_ANIMATION = 1;
+
+    /**
+     * A frame is counted as over budget when it takes longer than this many frame intervals
+     */
+    private static final float BUDGET_MULTIPLIER = 1.5f;
+
+    /**
+     * Receives each session as soon as it is recorded
+     */
+    public interface Listener {
+        void onSessionRecorded(int type, long duration, int frames, int framesOverBudget,
+                               float averageTouchLatency, int sideChanges, long listenerTimeNanos);
+    }
+
+    private final int[] types;
+    private final long[] startTimes;
+    private final long[] durations;
+    private final int[] frames;
+    private final int[] framesOverBudget;
+    private final float[] touchLatencies;
+    private final int[] sideChanges;
+    private final long[] listenerTimes;
+
+    private Listener listener;
+    private int writeIndex = 0;
+    private int recordCount = 0;
+    private float frameBudget = 1000f / 60 * BUDGET_MULTIPLIER;
+
+    private boolean sessionActive = false;
+    private int sessionType;
+    private long sessionStart;
+    private long lastFrameTime;
+    private long pendingEventTime;
+    private long latencySum;
+    private int latencyCount;
+    private int sessionFrames;
+    private int sessionFramesOverBudget;
+    private int sessionSideChanges;
+    private long sessionListenerTime;
+
+    public RotationMetrics(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive!");
+        }
+
+        types = new int[capacity];
+        startTimes = new long[capacity];
+        durations = new long[capacity];
+        frames = new int[capacity];
+        framesOverBudget = new int[capacity];
+        touchLatencies = new float[capacity];
+        sideChanges = new int[capacity];
+        listenerTimes = new long[capacity];
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns how many records are kept, which is never more than capacity
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public void clear() {
+        writeIndex = 0;
+        recordCount = 0;
+    }
+
+    /**
+     * Writes kept records from oldest to newest, one per line
+     */
+    public void dump(PrintWriter writer) {
+        int capacity = types.length;
+        int first = (writeIndex - recordCount + capacity) % capacity;
+        for (int i = 0; i < recordCount; i++) {
+            int index = (first + i) % capacity;
+            writer.print(types[index] == SESSION_GESTURE ? "gesture" : "animation");
+            writer.print(" start=");
+            writer.print(startTimes[index]);
+            writer.print(" duration=");
+            writer.print(durations[index]);
+            writer.print(" frames=");
+            writer.print(frames[index]);
+            writer.print(" overBudget=");
+            writer.print(framesOverBudget[index]);
+            writer.print(" touchLatency=");
+            writer.print(touchLatencies[index]);
+            writer.print(" sideChanges=");
+            writer.print(sideChanges[index]);
+            writer.print(" listenerNanos=");
+            writer.println(listenerTimes[index]);
+        }
+        writer.flush();
+    }
+
+    void setFrameInterval(float frameIntervalMillis) {
+        this.frameBudget = frameIntervalMillis * BUDGET_MULTIPLIER;
+    }
+
+    boolean isSessionActive() {
+        return sessionActive;
+    }
+
+    /**
+     * Starts a new session, any active one is recorded first
+     */
+    void beginSession(int type, long now) {
+        if (sessionActive) {
+            endSession(now);
+        }
+
+        sessionActive = true;
+        sessionType = type;
+        sessionStart = now;
+        lastFrameTime = now;
+        pendingEventTime = 0;
+        latencySum = 0;
+        latencyCount = 0;
+        sessionFrames = 0;
+        sessionFramesOverBudget = 0;
+        sessionSideChanges = 0;
+        sessionListenerTime = 0;
+    }
+
+    /**
+     * Touch latency is measured from the first event after a frame until the next frame
+     */
+    void onTouchEvent(long eventTime) {
+        if (sessionActive && pendingEventTime == 0) {
+            pendingEventTime = eventTime;
+        }
+    }
+
+    void onFrame(long now) {
+        if (!sessionActive) {
+            return;
+        }
+
+        sessionFrames++;
+        if (now - lastFrameTime > frameBudget) {
+            sessionFramesOverBudget++;
+        }
+        lastFrameTime = now;
+
+        if (pendingEventTime != 0) {
+            latencySum += now - pendingEventTime;
+            latencyCount++;
+            pendingEventTime = 0;
+        }
+    }
+
+    void onSideChanged() {
+        if (sessionActive) {
+            sessionSideChanges++;
+        }
+    }
+
+    void addListenerTime(long nanos) {
+        if (sessionActive) {
+            sessionListenerTime += nanos;
+        }
+    }
+
+    void endSession(long now) {
+        if (!sessionActive) {
+            return;
+        }
+        sessionActive = false;
+
+        int index = writeIndex;
+        types[index] = sessionType;
+        startTimes[index] = sessionStart;
+        durations[index] = now - sessionStart;
+        frames[index] = sessionFrames;
+        framesOverBudget[index] = sessionFramesOverBudget;
+        touchLatencies[index] = latencyCount == 0 ? 0 : (float) latencySum / latencyCount;
+        sideChanges[index] = sessionSideChanges;
+        listenerTimes[index] = sessionListenerTime;
+
+        writeIndex = (writeIndex + 1) % types.length;
+        recordCount = Math.min(recordCount + 1, types.length);
+
+        if (listener != null) {
+            listener.onSessionRecorded(types[index], durations[index], frames[index], framesOverBudget[index],
+                    touchLatencies[index], sideChanges[index], listenerTimes[index]);
+        }
+    }
+
+}
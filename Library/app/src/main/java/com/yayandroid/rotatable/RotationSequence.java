@@ -0,0 +1,225 @@
+package com.yayandroid.rotatable;
+
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.support.v4.view.animation.FastOutSlowInInterpolator;
+
+import java.util.ArrayList;
+
+/**
+ * Steps of rotation played one after another by {@link Rotatable#play(RotationSequence)}.
+ * Each step rotates by given degree relative to where previous step is left,
+ * so a sequence can be played from any rotation.
+ * <p>
+ * Steps are compiled into arrays once when sequence is built, sequence doesn't change after that,
+ * so one sequence can be shared by any number of rotatables and played as many times as needed.
+ * A touch on rotatable stops its sequence, as it does any other rotation.
+ */
+public final class RotationSequence {
+
+    public static final int INFINITE = ValueAnimator.INFINITE;
+
+    private final int[] directions;
+    private final float[] degrees;
+    private final long[] startTimes;
+    private final long[] durations;
+    private final TimeInterpolator[] interpolators;
+
+    /**
+     * Degrees rotated on each axis before each step starts
+     */
+    private final float[] rotationsXBefore;
+    private final float[] rotationsYBefore;
+    private final float[] rotationsZBefore;
+
+    private final long totalDuration;
+    private final float cycleRotationX, cycleRotationY, cycleRotationZ;
+    private final int repeatCount;
+
+    private RotationSequence(Builder builder) {
+        int count = builder.steps.size();
+        directions = new int[count];
+        degrees = new float[count];
+        startTimes = new long[count];
+        durations = new long[count];
+        interpolators = new TimeInterpolator[count];
+        rotationsXBefore = new float[count];
+        rotationsYBefore = new float[count];
+        rotationsZBefore = new float[count];
+
+        long time = 0;
+        float rotationX = 0, rotationY = 0, rotationZ = 0;
+        for (int i = 0; i < count; i++) {
+            Step step = builder.steps.get(i);
+            directions[i] = step.direction;
+            degrees[i] = step.degree;
+            startTimes[i] = time + step.delay;
+            durations[i] = step.duration;
+            interpolators[i] = step.interpolator;
+            rotationsXBefore[i] = rotationX;
+            rotationsYBefore[i] = rotationY;
+            rotationsZBefore[i] = rotationZ;
+
+            time = startTimes[i] + step.duration;
+            if (Rotatable.hasAxis(step.direction, Rotatable.ROTATE_X)) {
+                rotationX += step.degree;
+            }
+            if (Rotatable.hasAxis(step.direction, Rotatable.ROTATE_Y)) {
+                rotationY += step.degree;
+            }
+            if (Rotatable.hasAxis(step.direction, Rotatable.ROTATE_Z)) {
+                rotationZ += step.degree;
+            }
+        }
+
+        totalDuration = time;
+        cycleRotationX = rotationX;
+        cycleRotationY = rotationY;
+        cycleRotationZ = rotationZ;
+        repeatCount = builder.repeatCount;
+    }
+
+    long getTotalDuration() {
+        return totalDuration;
+    }
+
+    int getRepeatCount() {
+        return repeatCount;
+    }
+
+    float getCycleRotationX() {
+        return cycleRotationX;
+    }
+
+    float getCycleRotationY() {
+        return cycleRotationY;
+    }
+
+    float getCycleRotationZ() {
+        return cycleRotationZ;
+    }
+
+    int getStepCount() {
+        return directions.length;
+    }
+
+    /**
+     * Returns index of the step which is running or waiting for its delay at given time of a cycle,
+     * searching from given step on, since time only goes forward within a cycle
+     */
+    int findStep(int from, long time) {
+        int step = from;
+        while (step < directions.length - 1 && time >= startTimes[step] + durations[step]) {
+            step++;
+        }
+        return step;
+    }
+
+    /**
+     * Degrees rotated on x axis since cycle started, at given time of given step
+     */
+    float getRotationX(int step, long time) {
+        float rotation = rotationsXBefore[step];
+        if (Rotatable.hasAxis(directions[step], Rotatable.ROTATE_X)) {
+            rotation += degrees[step] * getProgress(step, time);
+        }
+        return rotation;
+    }
+
+    float getRotationY(int step, long time) {
+        float rotation = rotationsYBefore[step];
+        if (Rotatable.hasAxis(directions[step], Rotatable.ROTATE_Y)) {
+            rotation += degrees[step] * getProgress(step, time);
+        }
+        return rotation;
+    }
+
+    float getRotationZ(int step, long time) {
+        float rotation = rotationsZBefore[step];
+        if (Rotatable.hasAxis(directions[step], Rotatable.ROTATE_Z)) {
+            rotation += degrees[step] * getProgress(step, time);
+        }
+        return rotation;
+    }
+
+    private float getProgress(int step, long time) {
+        long elapsed = time - startTimes[step];
+        if (elapsed <= 0) {
+            return 0;
+        }
+        if (elapsed >= durations[step]) {
+            return 1;
+        }
+        return interpolators[step].getInterpolation((float) elapsed / durations[step]);
+    }
+
+    private static class Step {
+        private int direction;
+        private float degree;
+        private long duration;
+        private long delay;
+        private TimeInterpolator interpolator;
+    }
+
+    public static class Builder {
+
+        private final ArrayList<Step> steps = new ArrayList<>();
+        private int repeatCount = 0;
+
+        public Builder step(@Rotatable.Direction int direction, float degree, long duration) {
+            return step(direction, degree, duration, new FastOutSlowInInterpolator(), 0);
+        }
+
+        public Builder step(@Rotatable.Direction int direction, float degree, long duration,
+                            TimeInterpolator interpolator) {
+            return step(direction, degree, duration, interpolator, 0);
+        }
+
+        /**
+         * Adds a step which rotates by given degree, starting after given delay once previous step is done
+         */
+        public Builder step(@Rotatable.Direction int direction, float degree, long duration,
+                            TimeInterpolator interpolator, long delay) {
+            if (!Rotatable.isRotationValid(direction)) {
+                throw new IllegalArgumentException("Cannot specify given value as rotation direction!");
+            }
+            if (duration <= 0 || delay < 0) {
+                throw new IllegalArgumentException("Step duration must be positive and delay cannot be negative!");
+            }
+
+            Step step = new Step();
+            step.direction = direction;
+            step.degree = degree;
+            step.duration = duration;
+            step.delay = delay;
+            step.interpolator = interpolator;
+            steps.add(step);
+            return this;
+        }
+
+        /**
+         * Plays all steps once more for given times after first time, 0 by default
+         */
+        public Builder repeat(int count) {
+            this.repeatCount = count;
+            return this;
+        }
+
+        /**
+         * Keeps repeating until user touches rotatable or another rotation is started
+         */
+        public Builder loopUntilTouched() {
+            this.repeatCount = INFINITE;
+            return this;
+        }
+
+        public RotationSequence build() {
+            if (steps.isEmpty()) {
+                throw new IllegalArgumentException("You must add at least one step!");
+            }
+            return new RotationSequence(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.yayandroid.rotatable;
+
+/**
+ * Folds rotation degrees into half turn indexes, which is all rotatable needs to know
+ * to decide visible side and where to snap. Index of a degree is the multiple of 180
+ * closest to it, so even indexes show front and odd ones show back for each axis.
+ * <p>
+ * With more than two faces, each half turn moves to the next face instead,
+ * so visible face is sum of half turns folded into face count. With an odd count
+ * a face comes up on the other side every other time around, see {@link #isCounterFlipped(int)}.
+ * <p>
+ * Borders are half open, so exactly 90 belongs to 180 and exactly -90 belongs to 0,
+ * which leaves no degree without a side.
+ */
+final class RotationState {
+
+    private final int faceCount;
+    private final float period;
+    private int xHalfTurn = 0, yHalfTurn = 0;
+    private int face = 0;
+
+    RotationState(int faceCount) {
+        this.faceCount = faceCount;
+        // Shortest rotation which brings back the same face on the same side, so it is also a full turn
+        this.period = faceCount % 2 == 0 ? 180 * faceCount : 360 * faceCount;
+    }
+
+    /**
+     * Returns closest multiple of 180 as index, [-90, 90) is 0, [90, 270) is 1 and so on
+     */
+    static int halfTurn(float degree) {
+        return ((int) Math.floor(degree / 90) + 1) >> 1;
+    }
+
+    static boolean isFront(float degree) {
+        return (halfTurn(degree) & 1) == 0;
+    }
+
+    /**
+     * Returns degree rotatable should settle down from given degree
+     */
+    static float snap(float degree) {
+        return halfTurn(degree) * 180;
+    }
+
+    /**
+     * Each half turn on either axis moves to the next face, so with two faces
+     * visible side is parity of their sum
+     */
+    static int face(float rotationX, float rotationY, int faceCount) {
+        int face = (halfTurn(rotationX) + halfTurn(rotationY)) % faceCount;
+        return face < 0 ? face + faceCount : face;
+    }
+
+    /**
+     * Returns true if visible side is changed by given rotation values
+     */
+    boolean update(float rotationX, float rotationY) {
+        xHalfTurn = halfTurn(rotationX);
+        yHalfTurn = halfTurn(rotationY);
+
+        int newFace = (xHalfTurn + yHalfTurn) % faceCount;
+        if (newFace < 0) {
+            newFace += faceCount;
+        }
+        return update(newFace);
+    }
+
+    /**
+     * Returns true if visible side is changed to given face, which is already known
+     * such as by orientation of a free rotation
+     */
+    boolean update(int newFace) {
+        if (newFace != face) {
+            face = newFace;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Brings degree back in range without changing its face, which is a full turn only for two faces
+     */
+    float wrap(float degree) {
+        return degree % period;
+    }
+
+    void reset() {
+        xHalfTurn = 0;
+        yHalfTurn = 0;
+        face = 0;
+    }
+
+    boolean isFront() {
+        return face == 0;
+    }
+
+    /**
+     * Faces are laid out for the side their index falls on, even ones for front and odd ones for back.
+     * With an odd count, given face is on the other side when half turns and its index differ in parity
+     */
+    boolean isCounterFlipped(int face) {
+        return faceCount % 2 != 0 && ((xHalfTurn + yHalfTurn - face) & 1) != 0;
+    }
+
+    int getFace() {
+        return face;
+    }
+
+    int getXHalfTurn() {
+        return xHalfTurn;
+    }
+
+    int getYHalfTurn() {
+        return yHalfTurn;
+    }
+
+}
@@ -0,0 +1,267 @@
+package com.yayandroid.rotatable;
+
+import android.os.SystemClock;
+import android.support.annotation.IntDef;
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+
+import java.util.Arrays;
+
+/**
+ * Fans rotation, face and gesture phase of a rotatable out to any number of subscribers,
+ * see {@link Rotatable.Builder#stream(RotationStream)}. Rotatable still has a single listener,
+ * stream is for parallax backgrounds, analytics, haptics and such which all want to follow the same card.
+ * <p>
+ * Rotation subscribers choose their own delivery, same as {@link Rotatable.Builder#listenerDelivery(int)},
+ * so a slow one can take the latest values once per frame or per interval while another gets each of them.
+ * Values are passed as primitives and subscribers are kept in arrays which are only copied
+ * when one subscribes or unsubscribes, so emitting doesn't allocate.
+ * <p>
+ * A stream belongs to one rotatable and is only used from main thread.
+ */
+public final class RotationStream {
+
+    public static final int PHASE_GESTURE_START = 0;
+    public static final int PHASE_GESTURE_END = 1;
+    public static final int PHASE_SNAP_START = 2;
+    public static final int PHASE_SNAP_END = 3;
+
+    @IntDef({PHASE_GESTURE_START, PHASE_GESTURE_END, PHASE_SNAP_START, PHASE_SNAP_END})
+    public @interface Phase {
+    }
+
+    private static final RotationSubscription[] NO_ROTATION_SUBSCRIPTIONS = new RotationSubscription[0];
+    private static final FaceSubscriber[] NO_FACE_SUBSCRIBERS = new FaceSubscriber[0];
+    private static final PhaseSubscriber[] NO_PHASE_SUBSCRIBERS = new PhaseSubscriber[0];
+    private static final DetentSubscriber[] NO_DETENT_SUBSCRIBERS = new DetentSubscriber[0];
+
+    private RotationSubscription[] rotationSubscriptions = NO_ROTATION_SUBSCRIPTIONS;
+    private FaceSubscriber[] faceSubscribers = NO_FACE_SUBSCRIBERS;
+    private PhaseSubscriber[] phaseSubscribers = NO_PHASE_SUBSCRIBERS;
+    private DetentSubscriber[] detentSubscribers = NO_DETENT_SUBSCRIBERS;
+
+    private float rotationX, rotationY, rotationZ;
+    private View view;
+    private boolean framePosted = false;
+
+    public void subscribeRotation(RotationSubscriber subscriber) {
+        subscribeRotation(subscriber, Rotatable.DELIVER_EVERY_EVENT, 0);
+    }
+
+    /**
+     * Subscriber receives rotation values up to given delivery, sample interval in milliseconds
+     * is only used by {@link Rotatable#DELIVER_SAMPLED}. In any case, final values of a rotation are delivered
+     */
+    public void subscribeRotation(RotationSubscriber subscriber, @Rotatable.Delivery int delivery, long sampleInterval) {
+        if (delivery == Rotatable.DELIVER_SAMPLED && sampleInterval <= 0) {
+            throw new IllegalArgumentException("You must specify a sample interval for sampled delivery!");
+        }
+
+        RotationSubscription subscription = new RotationSubscription();
+        subscription.subscriber = subscriber;
+        subscription.delivery = delivery;
+        subscription.sampleInterval = sampleInterval;
+
+        int count = rotationSubscriptions.length;
+        rotationSubscriptions = Arrays.copyOf(rotationSubscriptions, count + 1);
+        rotationSubscriptions[count] = subscription;
+    }
+
+    public void unsubscribeRotation(RotationSubscriber subscriber) {
+        for (int i = 0; i < rotationSubscriptions.length; i++) {
+            if (rotationSubscriptions[i].subscriber == subscriber) {
+                rotationSubscriptions = remove(rotationSubscriptions, i, NO_ROTATION_SUBSCRIPTIONS);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Face is delivered as soon as it changes, see {@link Rotatable.RotationEventListener#onFaceChanged(int)}
+     */
+    public void subscribeFace(FaceSubscriber subscriber) {
+        int count = faceSubscribers.length;
+        faceSubscribers = Arrays.copyOf(faceSubscribers, count + 1);
+        faceSubscribers[count] = subscriber;
+    }
+
+    public void unsubscribeFace(FaceSubscriber subscriber) {
+        int index = Arrays.asList(faceSubscribers).indexOf(subscriber);
+        if (index >= 0) {
+            faceSubscribers = remove(faceSubscribers, index, NO_FACE_SUBSCRIBERS);
+        }
+    }
+
+    public void subscribePhase(PhaseSubscriber subscriber) {
+        int count = phaseSubscribers.length;
+        phaseSubscribers = Arrays.copyOf(phaseSubscribers, count + 1);
+        phaseSubscribers[count] = subscriber;
+    }
+
+    public void unsubscribePhase(PhaseSubscriber subscriber) {
+        int index = Arrays.asList(phaseSubscribers).indexOf(subscriber);
+        if (index >= 0) {
+            phaseSubscribers = remove(phaseSubscribers, index, NO_PHASE_SUBSCRIBERS);
+        }
+    }
+
+    /**
+     * Detents are delivered once per crossing, see {@link Rotatable.RotationEventListener#onDetent(int)}
+     */
+    public void subscribeDetent(DetentSubscriber subscriber) {
+        int count = detentSubscribers.length;
+        detentSubscribers = Arrays.copyOf(detentSubscribers, count + 1);
+        detentSubscribers[count] = subscriber;
+    }
+
+    public void unsubscribeDetent(DetentSubscriber subscriber) {
+        int index = Arrays.asList(detentSubscribers).indexOf(subscriber);
+        if (index >= 0) {
+            detentSubscribers = remove(detentSubscribers, index, NO_DETENT_SUBSCRIBERS);
+        }
+    }
+
+    /**
+     * Removes given index into a new array, one being iterated by an emit is left untouched
+     */
+    private static <T> T[] remove(T[] array, int index, T[] empty) {
+        if (array.length == 1) {
+            return empty;
+        }
+        T[] result = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+        return result;
+    }
+
+    void attach(View view) {
+        this.view = view;
+    }
+
+    void detach() {
+        if (framePosted) {
+            framePosted = false;
+            view.removeCallbacks(frame);
+        }
+        view = null;
+    }
+
+    void emitRotation(float rotationX, float rotationY, float rotationZ) {
+        this.rotationX = rotationX;
+        this.rotationY = rotationY;
+        this.rotationZ = rotationZ;
+
+        RotationSubscription[] subscriptions = rotationSubscriptions;
+        long now = SystemClock.uptimeMillis();
+        for (RotationSubscription subscription : subscriptions) {
+            if (subscription.delivery == Rotatable.DELIVER_EVERY_EVENT
+                    || (subscription.delivery == Rotatable.DELIVER_SAMPLED
+                    && now - subscription.lastDeliveryTime >= subscription.sampleInterval)) {
+                deliver(subscription, now);
+            } else {
+                // Latest values replace the ones waiting, subscriber only gets what is current
+                subscription.pending = true;
+                postFrame();
+            }
+        }
+    }
+
+    /**
+     * Delivers values waiting for their frame or interval, used when a rotation is completed
+     */
+    void flush() {
+        RotationSubscription[] subscriptions = rotationSubscriptions;
+        long now = SystemClock.uptimeMillis();
+        for (RotationSubscription subscription : subscriptions) {
+            if (subscription.pending) {
+                deliver(subscription, now);
+            }
+        }
+    }
+
+    void emitFace(int face) {
+        FaceSubscriber[] subscribers = faceSubscribers;
+        for (FaceSubscriber subscriber : subscribers) {
+            subscriber.onFaceChanged(face);
+        }
+    }
+
+    void emitPhase(@Phase int phase) {
+        PhaseSubscriber[] subscribers = phaseSubscribers;
+        for (PhaseSubscriber subscriber : subscribers) {
+            subscriber.onPhaseChanged(phase);
+        }
+    }
+
+    void emitDetent(@Rotatable.Detent int detent) {
+        DetentSubscriber[] subscribers = detentSubscribers;
+        for (DetentSubscriber subscriber : subscribers) {
+            subscriber.onDetent(detent);
+        }
+    }
+
+    private void deliver(RotationSubscription subscription, long now) {
+        subscription.pending = false;
+        subscription.lastDeliveryTime = now;
+        subscription.subscriber.onRotationChanged(rotationX, rotationY, rotationZ);
+    }
+
+    private void postFrame() {
+        if (!framePosted && view != null) {
+            framePosted = true;
+            ViewCompat.postOnAnimation(view, frame);
+        }
+    }
+
+    /**
+     * One callback per frame serves all waiting subscribers, sampled ones are checked
+     * on each frame until their interval passes
+     */
+    private final Runnable frame = new Runnable() {
+        @Override
+        public void run() {
+            framePosted = false;
+            RotationSubscription[] subscriptions = rotationSubscriptions;
+            long now = SystemClock.uptimeMillis();
+            boolean waiting = false;
+            for (RotationSubscription subscription : subscriptions) {
+                if (!subscription.pending) {
+                    continue;
+                }
+                if (subscription.delivery == Rotatable.DELIVER_SAMPLED
+                        && now - subscription.lastDeliveryTime < subscription.sampleInterval) {
+                    waiting = true;
+                } else {
+                    deliver(subscription, now);
+                }
+            }
+            if (waiting) {
+                postFrame();
+            }
+        }
+    };
+
+    private static class RotationSubscription {
+        private RotationSubscriber subscriber;
+        private int delivery;
+        private long sampleInterval;
+        private long lastDeliveryTime;
+        private boolean pending;
+    }
+
+    public interface RotationSubscriber {
+        void onRotationChanged(float rotationX, float rotationY, float rotationZ);
+    }
+
+    public interface FaceSubscriber {
+        void onFaceChanged(int face);
+    }
+
+    public interface PhaseSubscriber {
+        void onPhaseChanged(@Phase int phase);
+    }
+
+    public interface DetentSubscriber {
+        void onDetent(@Rotatable.Detent int detent);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.yayandroid.rotatable;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayList;
+
+/**
+ * Bitmaps used by snapshot mode of all rotatables, see {@link Rotatable.Builder#snapshot(boolean)}.
+ * Released bitmaps are kept for reuse until total size of them reaches the limit,
+ * then least recently released ones are recycled. Cards of a feed are mostly in the same size,
+ * so a flip usually finds bitmaps of its faces here instead of allocating new ones.
+ * <p>
+ * Pool is only accessed from main thread.
+ */
+public final class SnapshotPool {
+
+    private static final ArrayList<Bitmap> bitmaps = new ArrayList<>();
+    private static long maxSize = Runtime.getRuntime().maxMemory() / 32;
+    private static long size = 0;
+
+    private SnapshotPool() {
+    }
+
+    /**
+     * Maximum bytes kept by pool while no snapshot uses them, 1/32 of heap by default
+     */
+    public static void setMaxSize(long bytes) {
+        maxSize = bytes;
+        trimTo(maxSize);
+    }
+
+    /**
+     * Recycles all bitmaps which are not in use, such as when app is trimming memory
+     */
+    public static void clear() {
+        trimTo(0);
+    }
+
+    static Bitmap acquire(int width, int height) {
+        // Most recently released is at the end, and it is most likely to be the same size
+        for (int i = bitmaps.size() - 1; i >= 0; i--) {
+            Bitmap bitmap = bitmaps.get(i);
+            if (bitmap.getWidth() == width && bitmap.getHeight() == height) {
+                bitmaps.remove(i);
+                size -= bitmap.getByteCount();
+                bitmap.eraseColor(0);
+                return bitmap;
+            }
+        }
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    static void release(Bitmap bitmap) {
+        bitmaps.add(bitmap);
+        size += bitmap.getByteCount();
+        trimTo(maxSize);
+    }
+
+    private static void trimTo(long bytes) {
+        while (size > bytes && !bitmaps.isEmpty()) {
+            Bitmap bitmap = bitmaps.remove(0);
+            size -= bitmap.getByteCount();
+            bitmap.recycle();
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.yayandroid.rotatable;
+
+/**
+ * Damped spring which moves rotation of each axis towards its target. Unlike a fixed duration
+ * animation, it continues with whatever velocity it is given, can be retargeted any time
+ * without losing its velocity and stops as soon as rotation settles down.
+ * <p>
+ * Spring doesn't draw anything, it is stepped by rotatable on each frame.
+ */
+final class SpringSnapper {
+
+    static final int AXIS_X = 0;
+    static final int AXIS_Y = 1;
+    static final int AXIS_Z = 2;
+
+    /**
+     * Longer frames are integrated in steps of this many seconds to keep stiff springs stable
+     */
+    private static final float MAX_STEP_TIME = 1f / 240;
+
+    /**
+     * A frame longer than this, such as after a long pause, is not integrated as a whole
+     */
+    private static final float MAX_FRAME_TIME = 1f / 20;
+
+    private static final float SETTLE_DISTANCE = 0.1f;
+    private static final float SETTLE_VELOCITY = 5f;
+
+    private final float[] positions = new float[3];
+    private final float[] velocities = new float[3];
+    private final float[] targets = new float[3];
+    private final boolean[] running = new boolean[3];
+
+    private final float stiffness;
+    private final float damping;
+
+    /**
+     * @param stiffness    spring constant for a unit mass, higher values snap faster
+     * @param dampingRatio 1 settles without bouncing, lower values bounce before settling
+     */
+    SpringSnapper(float stiffness, float dampingRatio) {
+        this.stiffness = stiffness;
+        this.damping = 2 * dampingRatio * (float) Math.sqrt(stiffness);
+    }
+
+    void start(int axis, float position, float velocity, float target) {
+        positions[axis] = position;
+        velocities[axis] = velocity;
+        targets[axis] = target;
+        running[axis] = true;
+    }
+
+    /**
+     * Moves target of a running axis, it keeps its current position and velocity
+     */
+    void retarget(int axis, float target) {
+        targets[axis] = target;
+    }
+
+    void stop() {
+        running[AXIS_X] = false;
+        running[AXIS_Y] = false;
+        running[AXIS_Z] = false;
+    }
+
+    boolean isRunning() {
+        return running[AXIS_X] || running[AXIS_Y] || running[AXIS_Z];
+    }
+
+    boolean isRunning(int axis) {
+        return running[axis];
+    }
+
+    float getPosition(int axis) {
+        return positions[axis];
+    }
+
+    /**
+     * Returns velocity in degrees per second, zero if axis is not running
+     */
+    float getVelocity(int axis) {
+        return running[axis] ? velocities[axis] : 0;
+    }
+
+    float getTarget(int axis) {
+        return targets[axis];
+    }
+
+    /**
+     * Advances running axes by given seconds, returns true if any of them is still running
+     */
+    boolean step(float seconds) {
+        seconds = Math.min(seconds, MAX_FRAME_TIME);
+        stepAxis(AXIS_X, seconds);
+        stepAxis(AXIS_Y, seconds);
+        stepAxis(AXIS_Z, seconds);
+        return isRunning();
+    }
+
+    private void stepAxis(int axis, float seconds) {
+        if (!running[axis]) {
+            return;
+        }
+
+        float position = positions[axis];
+        float velocity = velocities[axis];
+        float target = targets[axis];
+
+        float remaining = seconds;
+        while (remaining > 0) {
+            float step = Math.min(remaining, MAX_STEP_TIME);
+            // Semi implicit euler, velocity is updated first and then used for position
+            velocity += (-stiffness * (position - target) - damping * velocity) * step;
+            position += velocity * step;
+            remaining -= step;
+        }
+
+        if (Math.abs(position - target) < SETTLE_DISTANCE && Math.abs(velocity) < SETTLE_VELOCITY) {
+            position = target;
+            velocity = 0;
+            running[axis] = false;
+        }
+
+        positions[axis] = position;
+        velocities[axis] = velocity;
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.yayandroid.rotatable;
+
+import android.animation.TimeInterpolator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FaceSwapTimelineTest {
+
+    private static final TimeInterpolator LINEAR = new TimeInterpolator() {
+        @Override
+        public float getInterpolation(float input) {
+            return input;
+        }
+    };
+
+    private final FaceSwapTimeline timeline = new FaceSwapTimeline();
+
+    @Test
+    public void rotationWithinSideHasNoCrossing() {
+        timeline.solve(0, 80, 0, 0, LINEAR);
+        assertEquals(0, timeline.size());
+        assertFalse(timeline.hasNext());
+    }
+
+    @Test
+    public void crossingBelongsToNewSide() {
+        timeline.solve(0, 180, 0, 0, LINEAR);
+        assertEquals(1, timeline.size());
+        assertEquals(0.5f, timeline.nextFraction(), 0.001f);
+        assertEquals(1, RotationState.halfTurn(timeline.nextRotationX()));
+    }
+
+    @Test
+    public void backwardsCrossingBelongsToNewSide() {
+        timeline.solve(0, -180, 0, 0, LINEAR);
+        assertEquals(1, timeline.size());
+        assertEquals(0.5f, timeline.nextFraction(), 0.001f);
+        assertEquals(-1, RotationState.halfTurn(timeline.nextRotationX()));
+    }
+
+    @Test
+    public void crossingsOfBothAxesAreSorted() {
+        timeline.solve(0, 180, 0, 360, LINEAR);
+        assertEquals(3, timeline.size());
+
+        float[] expected = {0.25f, 0.5f, 0.75f};
+        for (float fraction : expected) {
+            assertTrue(timeline.hasNext());
+            assertEquals(fraction, timeline.nextFraction(), 0.001f);
+            timeline.advance();
+        }
+        assertFalse(timeline.hasNext());
+    }
+
+    @Test
+    public void solveDropsPreviousCrossings() {
+        timeline.solve(0, 360, 0, 0, LINEAR);
+        timeline.advance();
+        timeline.solve(0, 180, 0, 0, LINEAR);
+        assertEquals(1, timeline.size());
+        assertTrue(timeline.hasNext());
+
+        timeline.clear();
+        assertFalse(timeline.hasNext());
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.yayandroid.rotatable;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+/**
+ * Replays touch streams and long programmatic rotations through a real rotatable and checks
+ * time and allocation per event against budgets, see {@link ReplayBudget}. Numbers are taken
+ * on Robolectric, so they tell a regression apart rather than what a device would take.
+ */
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class GestureReplayBenchmarkTest {
+
+    private static final int FRONT_ID = 1;
+    private static final int BACK_ID = 2;
+    private static final int SIZE = 400;
+
+    private static final int WARM_UP_RUNS = 20;
+    private static final int MEASURED_RUNS = 100;
+    private static final long FRAME_MILLIS = 16;
+
+    private final ReplayBudget budget = new ReplayBudget();
+    private FrameLayout card;
+    private Rotatable rotatable;
+
+    @Before
+    public void setUp() {
+        card = new FrameLayout(RuntimeEnvironment.application);
+        View front = new View(RuntimeEnvironment.application);
+        front.setId(FRONT_ID);
+        View back = new View(RuntimeEnvironment.application);
+        back.setId(BACK_ID);
+        card.addView(front);
+        card.addView(back);
+        card.measure(View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY));
+        card.layout(0, 0, SIZE, SIZE);
+
+        rotatable = new Rotatable.Builder(card)
+                .sides(FRONT_ID, BACK_ID)
+                .direction(Rotatable.ROTATE_BOTH)
+                .fling(true)
+                .build();
+    }
+
+    @Test
+    public void dragFlip() throws Exception {
+        replay(GestureStream.load("drag_flip.gesture"));
+    }
+
+    @Test
+    public void fling() throws Exception {
+        replay(GestureStream.load("fling.gesture"));
+    }
+
+    @Test
+    public void diagonalDrag() throws Exception {
+        replay(GestureStream.load("diagonal.gesture"));
+    }
+
+    /**
+     * Each frame of a long rotate on both axes, including its face swaps, is an event
+     */
+    @Test
+    public void rotateSequence() throws Exception {
+        int duration = 2000;
+        long frames = duration / FRAME_MILLIS + 1;
+
+        for (int i = 0; i < WARM_UP_RUNS; i++) {
+            runRotation(duration, frames);
+        }
+        budget.resume();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            runRotation(duration, frames);
+        }
+        budget.pause();
+        budget.check("rotateSequence", MEASURED_RUNS * frames);
+    }
+
+    private void runRotation(int duration, long frames) {
+        rotatable.rotate(Rotatable.ROTATE_BOTH, rotatable.getCurrentXRotation() + 1440, duration);
+        for (long frame = 0; frame < frames; frame++) {
+            ShadowLooper.idleMainLooper(FRAME_MILLIS);
+        }
+    }
+
+    /**
+     * Events of a run are dispatched back to back, then the snap or fling after it
+     * is run to its end out of the measurement so every run starts from a settled card
+     */
+    private void replay(GestureStream gesture) throws Exception {
+        for (int i = 0; i < WARM_UP_RUNS; i++) {
+            replayOnce(gesture, false);
+        }
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            replayOnce(gesture, true);
+        }
+        budget.check(gesture.getName().replace(".gesture", ""), (long) MEASURED_RUNS * gesture.size());
+    }
+
+    private void replayOnce(GestureStream gesture, boolean measured) {
+        MotionEvent[] events = gesture.obtain(SystemClock.uptimeMillis());
+        if (measured) {
+            budget.resume();
+        }
+        for (MotionEvent event : events) {
+            rotatable.onTouch(card, event);
+        }
+        if (measured) {
+            budget.pause();
+        }
+        GestureStream.recycle(events);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.yayandroid.rotatable;
+
+import android.view.MotionEvent;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Touch events of a gesture read from test resources, one event a line as time in milliseconds,
+ * action and position. Events are obtained before a replay starts and recycled after it,
+ * so creating them is not counted as part of the replay.
+ */
+final class GestureStream {
+
+    private final String name;
+    private final long[] times;
+    private final int[] actions;
+    private final float[] xs, ys;
+
+    private GestureStream(String name, List<String[]> lines) {
+        this.name = name;
+        int size = lines.size();
+        times = new long[size];
+        actions = new int[size];
+        xs = new float[size];
+        ys = new float[size];
+        for (int i = 0; i < size; i++) {
+            String[] line = lines.get(i);
+            times[i] = Long.parseLong(line[0]);
+            actions[i] = parseAction(line[1]);
+            xs[i] = Float.parseFloat(line[2]);
+            ys[i] = Float.parseFloat(line[3]);
+        }
+    }
+
+    static GestureStream load(String name) throws IOException {
+        InputStream input = GestureStream.class.getClassLoader().getResourceAsStream("gestures/" + name);
+        if (input == null) {
+            throw new IOException("Gesture " + name + " is not found!");
+        }
+
+        List<String[]> lines = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    lines.add(line.split("\\s+"));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return new GestureStream(name, lines);
+    }
+
+    private static int parseAction(String action) {
+        switch (action) {
+            case "DOWN":
+                return MotionEvent.ACTION_DOWN;
+            case "MOVE":
+                return MotionEvent.ACTION_MOVE;
+            case "UP":
+                return MotionEvent.ACTION_UP;
+            case "CANCEL":
+                return MotionEvent.ACTION_CANCEL;
+            default:
+                throw new IllegalArgumentException("Unknown action " + action + "!");
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int size() {
+        return times.length;
+    }
+
+    /**
+     * Returns events of this gesture as if it started at given time
+     */
+    MotionEvent[] obtain(long downTime) {
+        MotionEvent[] events = new MotionEvent[times.length];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = MotionEvent.obtain(downTime, downTime + times[i], actions[i], xs[i], ys[i], 0);
+        }
+        return events;
+    }
+
+    static void recycle(MotionEvent[] events) {
+        for (MotionEvent event : events) {
+            event.recycle();
+        }
+    }
+
+}
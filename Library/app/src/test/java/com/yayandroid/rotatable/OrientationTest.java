@@ -0,0 +1,82 @@
+package com.yayandroid.rotatable;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OrientationTest {
+
+    private static final float DELTA = 0.01f;
+
+    private final Orientation orientation = new Orientation();
+
+    @Test
+    public void setResolvesBackToSameRotation() {
+        orientation.set(30, 40, 50);
+        assertRotation(30, 40, 50);
+    }
+
+    @Test
+    public void dragTurnsAroundScreenAxis() {
+        // View is turned in its plane, a vertical drag still tilts it around screen x
+        orientation.set(0, 0, 90);
+        orientation.rotate(10, 0);
+        assertRotation(10, 0, 90);
+    }
+
+    @Test
+    public void smallStepsAddUpToHalfTurn() {
+        orientation.set(0, 0, 0);
+        for (int i = 0; i < 18; i++) {
+            orientation.rotate(0, 10);
+        }
+        assertFalse(orientation.isFront());
+        assertRotation(0, 180, 0);
+    }
+
+    @Test
+    public void twistTurnsAroundViewNormal() {
+        orientation.set(0, 0, 0);
+        orientation.rotateZ(30);
+        assertRotation(0, 0, 30);
+
+        // Same as rotation z of a view, which is mirrored on screen while view shows its back
+        orientation.set(0, 180, 20);
+        orientation.rotateZ(-30);
+        assertRotation(0, 180, -10);
+    }
+
+    @Test
+    public void snapsFlatOnVisibleSide() {
+        orientation.set(10, 150, 0);
+        assertFalse(orientation.isFront());
+        orientation.snap(90);
+        assertEquals(0, orientation.getTargetRotationX(), DELTA);
+        assertEquals(180, orientation.getTargetRotationY(), DELTA);
+
+        orientation.interpolate(1);
+        orientation.resolveRotation();
+        assertFalse(orientation.isFront());
+        assertRotation(0, 180, 0);
+    }
+
+    @Test
+    public void snapStartsFromCurrentOrientation() {
+        orientation.set(20, 10, 0);
+        assertTrue(orientation.isFront());
+        orientation.snap(90);
+        orientation.interpolate(0);
+        orientation.resolveRotation();
+        assertRotation(20, 10, 0);
+    }
+
+    private void assertRotation(float x, float y, float z) {
+        orientation.resolveRotation();
+        assertEquals(x, orientation.getRotationX(), DELTA);
+        assertEquals(y, orientation.getRotationY(), DELTA);
+        assertEquals(z, orientation.getRotationZ(), DELTA);
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.yayandroid.rotatable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+
+/**
+ * Measures time and allocation of a replay per event and fails when either of them
+ * exceeds its budget in replay-budget.properties. Run tests with -PupdateBudgets
+ * to write measured values with some headroom as new budgets.
+ * <p>
+ * Allocation is read from HotSpot's per thread counter, which only counts what
+ * the replaying thread allocates, so it doesn't need a quiet heap.
+ */
+final class ReplayBudget {
+
+    private static final double TIME_HEADROOM = 1.5;
+
+    private final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final File budgetFile = new File(System.getProperty("rotatable.budgetFile"));
+    private final File reportDir = new File(System.getProperty("rotatable.reportDir"));
+    private final boolean update = Boolean.getBoolean("rotatable.updateBudgets");
+
+    private long startNanos, startBytes;
+    private long totalNanos, totalBytes;
+
+    /**
+     * Measurement is made of any number of parts, so work between them such as
+     * creating events or settling a card is left out
+     */
+    void resume() {
+        startBytes = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        startNanos = System.nanoTime();
+    }
+
+    void pause() {
+        totalNanos += System.nanoTime() - startNanos;
+        totalBytes += threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - startBytes;
+    }
+
+    /**
+     * Checks parts measured so far as given number of events against budget of given name
+     */
+    void check(String name, long events) throws IOException {
+        double nanosPerEvent = (double) totalNanos / events;
+        double bytesPerEvent = (double) totalBytes / events;
+        totalNanos = 0;
+        totalBytes = 0;
+
+        String report = String.format("%-24s %12.1f ns/event %10.1f B/event", name, nanosPerEvent, bytesPerEvent);
+        System.out.println(report);
+        writeReport(name, report);
+
+        Properties budgets = loadBudgets();
+        if (update) {
+            budgets.setProperty(name + ".ns", String.valueOf((long) Math.ceil(nanosPerEvent * TIME_HEADROOM)));
+            budgets.setProperty(name + ".bytes", String.valueOf((long) Math.ceil(bytesPerEvent)));
+            storeBudgets(budgets);
+            return;
+        }
+
+        String maxNanos = budgets.getProperty(name + ".ns");
+        String maxBytes = budgets.getProperty(name + ".bytes");
+        if (maxNanos == null || maxBytes == null) {
+            throw new AssertionError(name + " has no budget, run tests with -PupdateBudgets to add it");
+        }
+        if (nanosPerEvent > Double.parseDouble(maxNanos)) {
+            throw new AssertionError(name + " takes " + nanosPerEvent + " ns/event, budget is " + maxNanos);
+        }
+        if (bytesPerEvent > Double.parseDouble(maxBytes)) {
+            throw new AssertionError(name + " allocates " + bytesPerEvent + " B/event, budget is " + maxBytes);
+        }
+    }
+
+    private Properties loadBudgets() throws IOException {
+        Properties budgets = new Properties();
+        if (budgetFile.exists()) {
+            InputStream input = new FileInputStream(budgetFile);
+            try {
+                budgets.load(input);
+            } finally {
+                input.close();
+            }
+        }
+        return budgets;
+    }
+
+    private void storeBudgets(Properties budgets) throws IOException {
+        OutputStream output = new FileOutputStream(budgetFile);
+        try {
+            budgets.store(output, "Replay budgets per event, see ReplayBudget");
+        } finally {
+            output.close();
+        }
+    }
+
+    private void writeReport(String name, String report) throws IOException {
+        if (!reportDir.exists() && !reportDir.mkdirs()) {
+            throw new IOException("Cannot create " + reportDir);
+        }
+        OutputStream output = new FileOutputStream(new File(reportDir, name + ".txt"));
+        try {
+            output.write((report + "\n").getBytes("UTF-8"));
+        } finally {
+            output.close();
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.yayandroid.rotatable;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RotationStateTest {
+
+    @Test
+    public void halfTurnBordersAreHalfOpen() {
+        assertEquals(0, RotationState.halfTurn(-90));
+        assertEquals(0, RotationState.halfTurn(89.9f));
+        assertEquals(1, RotationState.halfTurn(90));
+        assertEquals(1, RotationState.halfTurn(269.9f));
+        assertEquals(2, RotationState.halfTurn(270));
+        assertEquals(-1, RotationState.halfTurn(-90.1f));
+    }
+
+    @Test
+    public void snapsToClosestHalfTurn() {
+        assertEquals(0, RotationState.snap(80), 0);
+        assertEquals(180, RotationState.snap(100), 0);
+        assertEquals(-180, RotationState.snap(-100), 0);
+        assertEquals(360, RotationState.snap(300), 0);
+    }
+
+    @Test
+    public void faceIsSumOfHalfTurns() {
+        assertEquals(0, RotationState.face(0, 0, 2));
+        assertEquals(1, RotationState.face(180, 0, 2));
+        assertEquals(0, RotationState.face(180, 180, 2));
+        assertEquals(2, RotationState.face(180, 180, 4));
+        assertEquals(3, RotationState.face(-180, 0, 4));
+    }
+
+    @Test
+    public void updateReportsOnlyFaceChanges() {
+        RotationState state = new RotationState(2);
+        assertFalse(state.update(10, 10));
+        assertTrue(state.update(100, 0));
+        assertFalse(state.isFront());
+        assertFalse(state.update(150, 0));
+        assertTrue(state.update(100, 100));
+        assertTrue(state.isFront());
+    }
+
+    @Test
+    public void wrapKeepsFace() {
+        RotationState state = new RotationState(4);
+        assertEquals(180, state.wrap(900), 0);
+        assertEquals(RotationState.face(900, 0, 4), RotationState.face(state.wrap(900), 0, 4));
+
+        state = new RotationState(2);
+        assertEquals(90, state.wrap(450), 0);
+    }
+
+    @Test
+    public void oddFaceCountWrapsOverTwoRounds() {
+        RotationState state = new RotationState(3);
+        assertEquals(540, state.wrap(540), 0);
+        assertEquals(0, state.wrap(1080), 0);
+    }
+
+    @Test
+    public void oddFaceCountCounterFlipsEveryOtherRound() {
+        RotationState state = new RotationState(3);
+        state.update(0, 180);
+        assertEquals(1, state.getFace());
+        assertFalse(state.isCounterFlipped(1));
+
+        state.update(0, 540);
+        assertEquals(0, state.getFace());
+        assertTrue(state.isCounterFlipped(0));
+
+        state.update(0, 720);
+        assertEquals(1, state.getFace());
+        assertTrue(state.isCounterFlipped(1));
+
+        state = new RotationState(4);
+        state.update(0, 540);
+        assertFalse(state.isCounterFlipped(state.getFace()));
+    }
+
+}
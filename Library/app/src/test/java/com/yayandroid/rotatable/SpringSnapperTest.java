@@ -0,0 +1,77 @@
+package com.yayandroid.rotatable;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SpringSnapperTest {
+
+    private static final float FRAME = 1f / 60;
+
+    @Test
+    public void settlesExactlyOnTarget() {
+        SpringSnapper spring = new SpringSnapper(200, 1);
+        spring.start(SpringSnapper.AXIS_X, 0, 0, 180);
+        for (int i = 0; i < 600 && spring.step(FRAME); i++) {
+            // Runs until it settles
+        }
+
+        assertFalse(spring.isRunning());
+        assertEquals(180, spring.getPosition(SpringSnapper.AXIS_X), 0);
+        assertEquals(0, spring.getVelocity(SpringSnapper.AXIS_X), 0);
+    }
+
+    @Test
+    public void criticalDampingDoesNotOvershoot() {
+        assertTrue(maxPosition(1) <= 180.1f);
+    }
+
+    @Test
+    public void lowDampingBounces() {
+        assertTrue(maxPosition(0.3f) > 180);
+    }
+
+    @Test
+    public void retargetKeepsVelocity() {
+        SpringSnapper spring = new SpringSnapper(200, 1);
+        spring.start(SpringSnapper.AXIS_Y, 0, 100, 180);
+        spring.retarget(SpringSnapper.AXIS_Y, 360);
+        assertEquals(100, spring.getVelocity(SpringSnapper.AXIS_Y), 0);
+        assertEquals(360, spring.getTarget(SpringSnapper.AXIS_Y), 0);
+    }
+
+    @Test
+    public void axesRunIndependently() {
+        SpringSnapper spring = new SpringSnapper(200, 1);
+        spring.start(SpringSnapper.AXIS_Z, 10, 0, 0);
+        assertTrue(spring.isRunning(SpringSnapper.AXIS_Z));
+        assertFalse(spring.isRunning(SpringSnapper.AXIS_X));
+        assertEquals(0, spring.getVelocity(SpringSnapper.AXIS_X), 0);
+    }
+
+    @Test
+    public void longFrameIsClamped() {
+        SpringSnapper paused = new SpringSnapper(200, 1);
+        paused.start(SpringSnapper.AXIS_X, 0, 0, 180);
+        paused.step(10);
+
+        SpringSnapper clamped = new SpringSnapper(200, 1);
+        clamped.start(SpringSnapper.AXIS_X, 0, 0, 180);
+        clamped.step(1f / 20);
+
+        assertEquals(clamped.getPosition(SpringSnapper.AXIS_X), paused.getPosition(SpringSnapper.AXIS_X), 0);
+    }
+
+    private static float maxPosition(float dampingRatio) {
+        SpringSnapper spring = new SpringSnapper(200, dampingRatio);
+        spring.start(SpringSnapper.AXIS_X, 0, 0, 180);
+        float max = 0;
+        for (int i = 0; i < 600 && spring.step(FRAME); i++) {
+            max = Math.max(max, spring.getPosition(SpringSnapper.AXIS_X));
+        }
+        return max;
+    }
+
+}
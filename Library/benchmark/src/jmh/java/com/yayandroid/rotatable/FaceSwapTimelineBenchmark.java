@@ -0,0 +1,47 @@
+package com.yayandroid.rotatable;
+
+import android.animation.TimeInterpolator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Crossings solved once as a rotate starts, for a single flip and a long spin on both axes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class FaceSwapTimelineBenchmark {
+
+    /**
+     * Cubic ease in and out, close to the curve rotate uses by default
+     */
+    private static final TimeInterpolator EASE = new TimeInterpolator() {
+        @Override
+        public float getInterpolation(float input) {
+            return input < 0.5f ? 4 * input * input * input
+                    : 1 - 4 * (1 - input) * (1 - input) * (1 - input);
+        }
+    };
+
+    private final FaceSwapTimeline timeline = new FaceSwapTimeline();
+
+    @Benchmark
+    public int solveFlip() {
+        timeline.solve(0, 180, 0, 0, EASE);
+        return timeline.size();
+    }
+
+    @Benchmark
+    public int solveSpin() {
+        timeline.solve(0, 1440, 0, -720, EASE);
+        return timeline.size();
+    }
+
+}
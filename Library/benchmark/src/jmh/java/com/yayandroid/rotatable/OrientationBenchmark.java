@@ -0,0 +1,61 @@
+package com.yayandroid.rotatable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Free rotation costs, a touch sample is a rotate and each event resolves euler angles once
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class OrientationBenchmark {
+
+    private final Orientation orientation = new Orientation();
+    private float fraction;
+
+    @Setup
+    public void setUp() {
+        orientation.set(20, 130, 10);
+        orientation.snap(90);
+    }
+
+    @Benchmark
+    public float rotateSample() {
+        orientation.rotate(1.5f, -2.5f);
+        return orientation.getRotationX();
+    }
+
+    @Benchmark
+    public float rotateZ() {
+        orientation.rotateZ(3);
+        return orientation.getRotationZ();
+    }
+
+    @Benchmark
+    public float resolveRotation() {
+        orientation.resolveRotation();
+        return orientation.getRotationY();
+    }
+
+    @Benchmark
+    public boolean isFront() {
+        return orientation.isFront();
+    }
+
+    @Benchmark
+    public float interpolate() {
+        fraction = fraction >= 1 ? 0 : fraction + 1f / 64;
+        orientation.interpolate(fraction);
+        orientation.resolveRotation();
+        return orientation.getRotationX();
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.yayandroid.rotatable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Side and face decisions made for each touch sample and animation frame
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class RotationStateBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private final float[] degrees = new float[SIZE];
+    private final RotationState state = new RotationState(4);
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            degrees[i] = random.nextFloat() * 1440 - 720;
+        }
+    }
+
+    private float next() {
+        index = (index + 1) & (SIZE - 1);
+        return degrees[index];
+    }
+
+    @Benchmark
+    public int halfTurn() {
+        return RotationState.halfTurn(next());
+    }
+
+    @Benchmark
+    public float snap() {
+        return RotationState.snap(next());
+    }
+
+    @Benchmark
+    public boolean update() {
+        return state.update(next(), next());
+    }
+
+    @Benchmark
+    public float wrap() {
+        return state.wrap(next());
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.yayandroid.rotatable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One frame of a spring snap on all three axes, restarted whenever it settles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class SpringSnapperBenchmark {
+
+    private static final float FRAME = 1f / 60;
+
+    private final SpringSnapper spring = new SpringSnapper(200, 0.7f);
+
+    @Benchmark
+    public boolean stepFrame() {
+        if (!spring.isRunning()) {
+            spring.start(SpringSnapper.AXIS_X, 0, 400, 180);
+            spring.start(SpringSnapper.AXIS_Y, 90, -200, 0);
+            spring.start(SpringSnapper.AXIS_Z, 30, 0, 0);
+        }
+        return spring.step(FRAME);
+    }
+
+}
@@ -1,6 +1,5 @@
 package com.yayandroid.rotatable.sample;
 
-import android.content.res.Configuration;
 import android.os.Bundle;
 import android.support.v7.app.AppCompatActivity;
 import android.support.v7.widget.Toolbar;
@@ -121,14 +120,6 @@ public class TouchActivity extends AppCompatActivity {
         return false;
     }
 
-    @Override
-    public void onConfigurationChanged(Configuration newConfig) {
-        super.onConfigurationChanged(newConfig);
-        if (rotatable != null) {
-            rotatable.orientationChanged(newConfig.orientation);
-        }
-    }
-
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.menu_rotation, menu);